@@ -0,0 +1,79 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.urlshortener.NoopUrlShortener;
+
+/**
+ * Aggregates a module with many report directories, each of them with the same number of failures.
+ * <p>
+ * Each directory is processed exactly once so the time per operation should grow linearly with the number of directories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleAggregationBenchmark {
+
+    private static final String MODULE_NAME = "extensions/resteasy-reactive/deployment";
+    private static final int TESTS_PER_DIRECTORY = 50;
+    private static final int FAILURES_PER_DIRECTORY = 10;
+
+    @Param({ "1", "10", "50" })
+    int reportDirectories;
+
+    private final WorkflowContext workflowContext = new WorkflowContext("quarkusio/quarkus", "Pull request",
+            "Pull request #1", "https://github.com/quarkusio/quarkus/pull/1");
+    private final WorkflowRunAnalyzer workflowRunAnalyzer = new WorkflowRunAnalyzer();
+
+    private WorkflowRunAnalyzer.ModuleReports moduleReports;
+
+    @Setup
+    public void setup() {
+        workflowRunAnalyzer.stackTraceShortener = new DefaultStackTraceShortener();
+        workflowRunAnalyzer.urlShortener = new NoopUrlShortener();
+
+        Path jobDirectory = Path.of("build-reports");
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
+        for (int i = 0; i < reportDirectories; i++) {
+            String className = "org.acme.Directory" + i + "Test";
+            Path testResultsDirectory = jobDirectory.resolve(MODULE_NAME).resolve("target/surefire-reports-" + i);
+            buildReportsBuilder.addTestResults(testResultsDirectory.resolve("TEST-" + className + ".xml"),
+                    SyntheticReports.testSuiteResults(className, TESTS_PER_DIRECTORY, FAILURES_PER_DIRECTORY,
+                            new StringPool()));
+        }
+
+        moduleReports = WorkflowRunAnalyzer.mapModuleReports(new BuildReport(),
+                buildReportsBuilder.build().getTestResultsPaths(), jobDirectory).get(MODULE_NAME);
+    }
+
+    @Benchmark
+    public WorkflowReportModule getModule() {
+        // a new cache so that the failures are shortened at each invocation
+        Map<String, WorkflowRunAnalyzer.FailureDetails> failureDetailsCache = new ConcurrentHashMap<>();
+
+        return workflowRunAnalyzer.getModule(workflowContext, MODULE_NAME, moduleReports, Set.of(), "0123456789abcdef",
+                failureDetailsCache, new StringPool());
+    }
+}
@@ -0,0 +1,69 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.build.reporting.model.ProjectReport;
+import io.quarkus.bot.buildreporter.githubactions.BuildReports.TestResultsPath;
+
+/**
+ * Groups the project reports and the test results of a synthetic reactor by module.
+ * <p>
+ * Each module has a project report, surefire reports and failsafe reports, the inputs are indexed in a single pass
+ * so the time per operation should grow linearly with the number of modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleMappingBenchmark {
+
+    @Param({ "500", "2000" })
+    int modules;
+
+    private final Path jobDirectory = Path.of("build-reports");
+
+    private BuildReport buildReport;
+    private Set<TestResultsPath> testResultsPaths;
+
+    @Setup
+    public void setup() {
+        buildReport = new BuildReport();
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
+        for (int i = 0; i < modules; i++) {
+            Path basedir = Path.of("extensions", "extension-" + i, i % 2 == 0 ? "deployment" : "runtime");
+            buildReport.addProjectReport(ProjectReport.success("Extension " + i, basedir, "io.quarkus",
+                    "quarkus-extension-" + i));
+
+            Path moduleDirectory = jobDirectory.resolve(basedir);
+            buildReportsBuilder.addTestResults(moduleDirectory.resolve("target/surefire-reports/TEST-org.acme.Test.xml"),
+                    List.of());
+            buildReportsBuilder.addTestResults(moduleDirectory.resolve("target/failsafe-reports/TEST-org.acme.IT.xml"),
+                    List.of());
+        }
+        testResultsPaths = buildReportsBuilder.build().getTestResultsPaths();
+    }
+
+    @Benchmark
+    public Map<String, WorkflowRunAnalyzer.ModuleReports> mapModuleReports() {
+        return WorkflowRunAnalyzer.mapModuleReports(buildReport, testResultsPaths, jobDirectory);
+    }
+}
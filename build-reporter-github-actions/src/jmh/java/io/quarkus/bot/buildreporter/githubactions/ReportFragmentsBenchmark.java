@@ -0,0 +1,197 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GHCheckRun;
+import org.kohsuke.github.GHWorkflowRun.Conclusion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.urlshortener.NoopUrlShortener;
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.ReflectionValueResolver;
+import io.quarkus.qute.Template;
+import io.quarkus.qute.ValueResolver;
+
+/**
+ * Renders the failures of a 5,000 failure report the way the comment and the check run report are rendered:
+ * at each level of detail, until the report fits.
+ * <p>
+ * The checked templates need a Quarkus application so the job templates are rendered with a standalone Qute engine,
+ * the templates of the comment and the check run around the failures are not rendered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportFragmentsBenchmark {
+
+    private static final int JOBS = 10;
+    private static final int MODULES_PER_JOB = 50;
+    private static final int FAILURES_PER_MODULE = 10;
+
+    private WorkflowReportFormatter workflowReportFormatter;
+    private WorkflowReport report;
+
+    @Setup
+    public void setup() {
+        workflowReportFormatter = new StandaloneWorkflowReportFormatter();
+        report = createReport();
+    }
+
+    @Benchmark
+    public void sharedFragments(Blackhole blackhole) {
+        ReportFragments reportFragments = new ReportFragments(workflowReportFormatter, report);
+
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            blackhole.consume(reportFragments.getCommentFailures(null, false, null, detailLevel));
+            blackhole.consume(reportFragments.getCheckRunFailures(false, null, detailLevel));
+        }
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            // the comment is rendered again once the level of detail of each job is known
+            blackhole.consume(reportFragments.getCommentFailures(null, false, null, detailLevel));
+        }
+    }
+
+    @Benchmark
+    public void fragmentsPerOutput(Blackhole blackhole) {
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            blackhole.consume(new ReportFragments(workflowReportFormatter, report)
+                    .getCommentFailures(null, false, null, detailLevel));
+            blackhole.consume(new ReportFragments(workflowReportFormatter, report)
+                    .getCheckRunFailures(false, null, detailLevel));
+        }
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            blackhole.consume(new ReportFragments(workflowReportFormatter, report)
+                    .getCommentFailures(null, false, null, detailLevel));
+        }
+    }
+
+    private static WorkflowReport createReport() {
+        WorkflowContext workflowContext = new WorkflowContext("quarkusio/quarkus", "Pull request", "Pull request #1",
+                "https://github.com/quarkusio/quarkus/pull/1");
+        WorkflowRunAnalyzer workflowRunAnalyzer = new WorkflowRunAnalyzer();
+        workflowRunAnalyzer.stackTraceShortener = new DefaultStackTraceShortener();
+        workflowRunAnalyzer.urlShortener = new NoopUrlShortener();
+        StringPool stringPool = new StringPool();
+        Path jobDirectory = Path.of("build-reports");
+
+        List<WorkflowReportJob> jobs = new ArrayList<>();
+        for (int j = 0; j < JOBS; j++) {
+            List<WorkflowReportModule> modules = new ArrayList<>();
+            for (int m = 0; m < MODULES_PER_JOB; m++) {
+                String moduleName = "extensions/extension-" + m + "/deployment";
+                // the failures are different in each job so that none of them is a duplicate
+                String className = "io.quarkus.job" + j + ".extension" + m + ".deployment.ExtensionTest";
+
+                BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
+                buildReportsBuilder.addTestResults(
+                        jobDirectory.resolve(moduleName).resolve("target/surefire-reports/TEST-" + className + ".xml"),
+                        SyntheticReports.testSuiteResults(className, 20, FAILURES_PER_MODULE, stringPool));
+                WorkflowRunAnalyzer.ModuleReports moduleReports = WorkflowRunAnalyzer.mapModuleReports(new BuildReport(),
+                        buildReportsBuilder.build().getTestResultsPaths(), jobDirectory).get(moduleName);
+
+                modules.add(workflowRunAnalyzer.getModule(workflowContext, moduleName, moduleReports, Set.of(),
+                        "0123456789abcdef", new ConcurrentHashMap<>(), stringPool));
+            }
+
+            jobs.add(new WorkflowReportJob("JVM Tests - JDK " + (17 + j), "JVM " + (17 + j), "test-failures-job-" + j,
+                    Conclusion.FAILURE, "Build", "https://github.com/quarkusio/quarkus/actions/runs/1/job/" + j,
+                    "https://github.com/quarkusio/quarkus/commit/0123456789abcdef/checks/" + j + "/logs", null,
+                    new BuildReport(), modules, false, false, false));
+        }
+
+        return new WorkflowReport("CI", "0123456789abcdef", jobs, true, Conclusion.FAILURE,
+                "https://github.com/quarkusio/quarkus/actions/runs/1");
+    }
+
+    /**
+     * Renders the job templates with a standalone engine, the other templates are not needed by the fragments.
+     */
+    private static class StandaloneWorkflowReportFormatter extends WorkflowReportFormatter {
+
+        private final Template commentReportJobFailures;
+        private final Template checkRunReportJobFailures;
+
+        private StandaloneWorkflowReportFormatter() {
+            Engine engine = Engine.builder()
+                    .addDefaults()
+                    .addValueResolver(new ReflectionValueResolver())
+                    .addValueResolver(ValueResolver.builder()
+                            .applyToBaseClass(String.class)
+                            .applyToName("escapeHtml")
+                            .resolveSync(ctx -> TemplateExtensions.escapeHtml((String) ctx.getBase()))
+                            .build())
+                    .addValueResolver(ValueResolver.builder()
+                            .applyToBaseClass(String.class)
+                            .applyToName("escapeMarkdown")
+                            .resolveSync(ctx -> TemplateExtensions.escapeMarkdown((String) ctx.getBase()))
+                            .build())
+                    // as in Quarkus
+                    .removeStandaloneLines(true)
+                    .build();
+
+            commentReportJobFailures = engine.parse(readTemplate("commentReportJobFailures"));
+            checkRunReportJobFailures = engine.parse(readTemplate("checkRunReportJobFailures"));
+        }
+
+        @Override
+        String getReportCommentJobFailures(WorkflowReportJob job, GHCheckRun checkRun, boolean develocityEnabled,
+                String develocityUrl, ReportDetailLevel detailLevel) {
+            return commentReportJobFailures.data("job", job)
+                    .data("checkRun", checkRun)
+                    .data("develocityEnabled", develocityEnabled)
+                    .data("develocityUrl", develocityUrl)
+                    .data("includeStackTraces", detailLevel.includeStackTraces())
+                    .data("includeFailureLinks", detailLevel.includeFailureLinks())
+                    .render();
+        }
+
+        @Override
+        String getCheckRunReportJobFailures(WorkflowReport report, WorkflowReportJob job, boolean develocityEnabled,
+                String develocityUrl, ReportDetailLevel detailLevel, boolean expandDuplicates) {
+            return checkRunReportJobFailures.data("report", report)
+                    .data("job", job)
+                    .data("develocityEnabled", develocityEnabled)
+                    .data("develocityUrl", develocityUrl)
+                    .data("includeStackTraces", detailLevel.includeStackTraces())
+                    .data("includeFailureLinks", detailLevel.includeFailureLinks())
+                    .data("expandDuplicates", expandDuplicates)
+                    .render();
+        }
+
+        private static String readTemplate(String name) {
+            try (InputStream inputStream = StandaloneWorkflowReportFormatter.class
+                    .getResourceAsStream("/templates/WorkflowReportFormatter/" + name + ".md")) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shortens stack traces the way the analysis does, to compare the {@link FilteringStackTraceShortener}
+ * with the {@link DefaultStackTraceShortener}.
+ * <p>
+ * Run it with {@code -prof gc} to compare the allocations too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StackTraceShortenerBenchmark {
+
+    // same as in BuildReporter
+    private static final int GITHUB_FIELD_LENGTH_HARD_LIMIT = 65000;
+
+    @Param({ "default", "filtering" })
+    String shortener;
+
+    @Param({ "10", "200" })
+    int frames;
+
+    private StackTraceShortener stackTraceShortener;
+    private String stackTrace;
+
+    @Setup
+    public void setup() {
+        stackTraceShortener = "filtering".equals(shortener) ? new FilteringStackTraceShortener()
+                : new DefaultStackTraceShortener();
+        stackTrace = SyntheticReports.stackTrace("org.acme.CoreTest", frames);
+    }
+
+    @Benchmark
+    public String shortenFailure() {
+        // what we do for the failures of the report
+        return stackTraceShortener.shorten(stackTrace, 1000, 8);
+    }
+
+    @Benchmark
+    public String shortenAnnotationMessage() {
+        // what we do for the message of the annotations of the check run
+        return stackTraceShortener.shorten(stackTrace, GITHUB_FIELD_LENGTH_HARD_LIMIT, 3);
+    }
+
+    @Benchmark
+    public String shortenAnnotationRawDetails() {
+        // what we do for the raw details of the annotations of the check run
+        return stackTraceShortener.shorten(stackTrace, GITHUB_FIELD_LENGTH_HARD_LIMIT);
+    }
+}
@@ -0,0 +1,69 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestResultsXmlParser;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestSuiteResult;
+
+/**
+ * Generates test results shaped like the ones of a large Quarkus build.
+ */
+final class SyntheticReports {
+
+    private static final List<String> FRAMES = List.of(
+            "java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)",
+            "java.base/java.lang.reflect.Method.invoke(Method.java:580)",
+            "org.junit.platform.commons.util.ReflectionUtils.invokeMethod(ReflectionUtils.java:728)",
+            "org.apache.maven.surefire.junitplatform.JUnitPlatformProvider.invoke(JUnitPlatformProvider.java:142)");
+
+    private SyntheticReports() {
+    }
+
+    static String stackTrace(String className, int depth) {
+        StringBuilder stackTrace = new StringBuilder("org.opentest4j.AssertionFailedError: expected: <200> but was: <500>\n")
+                .append("\tat org.junit.jupiter.api.AssertionFailureBuilder.build(AssertionFailureBuilder.java:151)\n")
+                .append("\tat org.junit.jupiter.api.AssertEquals.assertEquals(AssertEquals.java:150)\n")
+                .append("\tat ").append(className).append(".test(").append(simpleName(className)).append(".java:42)\n");
+        for (int i = 0; i < depth; i++) {
+            stackTrace.append("\tat ").append(FRAMES.get(i % FRAMES.size())).append('\n');
+        }
+        return stackTrace.toString();
+    }
+
+    static String testResultsXml(String className, int tests, int failures) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<testsuite name=\"").append(className).append("\" tests=\"").append(tests)
+                .append("\" failures=\"").append(failures).append("\" errors=\"0\" skipped=\"0\">\n");
+        for (int i = 0; i < tests; i++) {
+            xml.append("  <testcase name=\"test").append(i).append("\" classname=\"").append(className)
+                    .append("\" time=\"0.01\">\n");
+            if (i < failures) {
+                xml.append("    <failure message=\"expected: &lt;200&gt; but was: &lt;500&gt;\"")
+                        .append(" type=\"org.opentest4j.AssertionFailedError\"><![CDATA[")
+                        .append(stackTrace(className, 60))
+                        .append("]]></failure>\n");
+            }
+            xml.append("  </testcase>\n");
+        }
+        return xml.append("</testsuite>\n").toString();
+    }
+
+    static List<TestSuiteResult> testSuiteResults(String className, int tests, int failures, StringPool stringPool) {
+        try {
+            return TestResultsXmlParser.parse(
+                    new ByteArrayInputStream(testResultsXml(className, tests, failures).getBytes(StandardCharsets.UTF_8)),
+                    stringPool);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
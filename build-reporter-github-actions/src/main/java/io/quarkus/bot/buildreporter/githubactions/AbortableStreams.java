@@ -0,0 +1,47 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of the streams opened by an attempt so that they can be closed when the attempt times out:
+ * closing the stream is the only way to unblock a socket read.
+ */
+class AbortableStreams {
+
+    private final List<InputStream> streams = new ArrayList<>();
+    private boolean aborted;
+
+    /**
+     * @return the stream, which will be closed if the attempt is aborted
+     * @throws InterruptedIOException if the attempt has already been aborted
+     */
+    synchronized InputStream register(InputStream inputStream) throws IOException {
+        if (aborted) {
+            inputStream.close();
+            throw new InterruptedIOException("The attempt has been aborted");
+        }
+        streams.add(inputStream);
+        return inputStream;
+    }
+
+    void abort() {
+        List<InputStream> streamsToClose;
+        synchronized (this) {
+            aborted = true;
+            streamsToClose = new ArrayList<>(streams);
+            streams.clear();
+        }
+
+        for (InputStream stream : streamsToClose) {
+            try {
+                stream.close();
+            } catch (IOException | RuntimeException e) {
+                // we are aborting, nothing we can do
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Singleton;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Limits the disk and heap used by the analyses running concurrently.
+ * <p>
+ * Before the build reports of a workflow run are extracted or parsed, we reserve an estimate of what they will need,
+ * based on the size of the artifacts.
+ * If the reservation doesn't fit, we wait for other analyses to complete and, if it still doesn't fit after a while,
+ * the report is generated without the build reports.
+ */
+@Singleton
+class AnalysisAdmissionController {
+
+    private static final Logger LOG = Logger.getLogger(AnalysisAdmissionController.class);
+
+    private long reservedSize;
+
+    /**
+     * @return the reservation, to release once the analysis is done, or an empty optional if the analysis should be
+     *         performed without the build reports
+     */
+    Optional<Reservation> reserve(String logContext, long artifactsSize, BuildReporterConfig buildReporterConfig) {
+        long maxReservedSize = buildReporterConfig.getAdmissionMaxReservedSize();
+        int expansionFactor = buildReporterConfig.getAdmissionExpansionFactor();
+        Duration maxWait = buildReporterConfig.getAdmissionMaxWait();
+
+        long size = artifactsSize > maxReservedSize / expansionFactor ? Long.MAX_VALUE : artifactsSize * expansionFactor;
+
+        if (size > maxReservedSize) {
+            LOG.warn(logContext + " - Build reports artifacts are too large to be analyzed (" + artifactsSize
+                    + " bytes), ignoring them");
+            return Optional.empty();
+        }
+
+        long deadline = System.nanoTime() + maxWait.toNanos();
+
+        synchronized (this) {
+            try {
+                while (reservedSize + size > maxReservedSize) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        LOG.warn(logContext + " - Unable to reserve " + size + " bytes to analyze the build reports in "
+                                + maxWait + " (" + reservedSize + " bytes already reserved), ignoring them");
+                        return Optional.empty();
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+
+            reservedSize += size;
+        }
+
+        return Optional.of(new Reservation(size));
+    }
+
+    synchronized long getReservedSize() {
+        return reservedSize;
+    }
+
+    private synchronized void release(long size) {
+        reservedSize -= size;
+        notifyAll();
+    }
+
+    class Reservation {
+
+        private final long size;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(long size) {
+            this.size = size;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                AnalysisAdmissionController.this.release(size);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.build.reporting.model.BuildStatus;
+import io.quarkus.bot.build.reporting.model.ProjectReport;
+
+/**
+ * Merges several build reports into one, for instance when a job runs a root build and a sub-build.
+ * <p>
+ * The project reports are de-duplicated by {@code groupId:artifactId}. When a module appears in several reports,
+ * a failure wins over a success, which wins over a skip. For the same status, the first report wins.
+ * <p>
+ * The build report files are read in a streaming fashion, one project report at a time.
+ * If a file is malformed, the project reports read before the error are kept.
+ */
+class BuildReportMerger {
+
+    // the callers own the streams, they are closed by the callers
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private static final String PROJECT_REPORTS = "projectReports";
+
+    private final Map<String, ProjectReport> projectReports = new LinkedHashMap<>();
+
+    void merge(BuildReport buildReport) {
+        for (ProjectReport projectReport : buildReport.getProjectReports()) {
+            merge(projectReport);
+        }
+    }
+
+    void merge(Path buildReportPath) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(buildReportPath)) {
+            merge(inputStream);
+        }
+    }
+
+    /**
+     * The input stream is not closed.
+     *
+     * @throws JsonProcessingException if the build report is malformed, the project reports read before the error are kept
+     */
+    void merge(InputStream inputStream) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Build report should be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                if (!PROJECT_REPORTS.equals(fieldName) || token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    merge(OBJECT_MAPPER.readValue(parser, ProjectReport.class));
+                }
+            }
+        }
+    }
+
+    void merge(ProjectReport projectReport) {
+        projectReports.merge(getKey(projectReport), projectReport,
+                (existing, candidate) -> getPrecedence(candidate.getStatus()) > getPrecedence(existing.getStatus())
+                        ? candidate
+                        : existing);
+    }
+
+    BuildReport build() {
+        BuildReport buildReport = new BuildReport();
+        for (ProjectReport projectReport : projectReports.values()) {
+            buildReport.addProjectReport(projectReport);
+        }
+        return buildReport;
+    }
+
+    private static String getKey(ProjectReport projectReport) {
+        if (projectReport.getGroupId() != null && projectReport.getArtifactId() != null) {
+            return projectReport.getGroupId() + ":" + projectReport.getArtifactId();
+        }
+
+        // reports generated by older versions of the extension might not have the coordinates
+        return "basedir:" + projectReport.getBasedir() + ":" + projectReport.getName();
+    }
+
+    private static int getPrecedence(BuildStatus status) {
+        if (status == null) {
+            return 0;
+        }
+
+        switch (status) {
+            case FAILURE:
+                return 3;
+            case SUCCESS:
+                return 2;
+            case SKIPPED:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
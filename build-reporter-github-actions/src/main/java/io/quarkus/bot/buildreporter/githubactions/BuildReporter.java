@@ -3,9 +3,19 @@ package io.quarkus.bot.buildreporter.githubactions;
 import static io.quarkus.bot.buildreporter.githubactions.WorkflowUtils.getActiveStatusCommentMarker;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
@@ -15,7 +25,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.jboss.logging.Logger;
 import org.kohsuke.github.GHCheckRun;
 import org.kohsuke.github.GHCheckRun.AnnotationLevel;
-import org.kohsuke.github.GHCheckRunBuilder;
 import org.kohsuke.github.GHCheckRunBuilder.Annotation;
 import org.kohsuke.github.GHCheckRunBuilder.Output;
 import org.kohsuke.github.GHWorkflowRun;
@@ -23,6 +32,7 @@ import org.kohsuke.github.GHWorkflowRun;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJobIncludeStrategy;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportTestCase;
 
 @Singleton
@@ -31,10 +41,14 @@ public class BuildReporter {
     private static final Logger LOG = Logger.getLogger(BuildReporter.class);
 
     private static final int GITHUB_FIELD_LENGTH_HARD_LIMIT = 65000;
+    private static final int GITHUB_MAX_ANNOTATIONS_PER_REQUEST = 50;
 
     @Inject
     WorkflowReportFormatter workflowReportFormatter;
 
+    @Inject
+    ReportCommentRenderer reportCommentRenderer;
+
     @Inject
     WorkflowReportJobIncludeStrategy globalWorkflowReportJobIncludeStrategy;
 
@@ -50,8 +64,11 @@ public class BuildReporter {
             boolean indicateSuccess,
             boolean hasOtherPendingCheckRuns) throws IOException {
 
+        // the failures of the jobs are rendered once and shared by the check run and the comment
+        ReportFragments reportFragments = new ReportFragments(workflowReportFormatter, workflowReport);
+
         Optional<GHCheckRun> checkRunOptional = createCheckRun(workflowRun, buildReporterConfig, workflowContext,
-                artifactsAvailable, workflowReport);
+                artifactsAvailable, reportFragments);
 
         String workflowRunIdMarker = String.format(WorkflowConstants.WORKFLOW_RUN_ID_MARKER, workflowRun.getId());
         String statusCommentMarker = workflowName == null ? WorkflowConstants.MESSAGE_ID_ACTIVE
@@ -61,7 +78,7 @@ public class BuildReporter {
                 .getWorkflowReportJobIncludeStrategy() != null ? buildReporterConfig.getWorkflowReportJobIncludeStrategy()
                         : globalWorkflowReportJobIncludeStrategy;
 
-        String reportComment = workflowReportFormatter.getReportComment(workflowReport,
+        RenderedReport reportComment = reportCommentRenderer.render(reportFragments,
                 artifactsAvailable,
                 checkRunOptional.orElse(null),
                 statusCommentMarker,
@@ -71,61 +88,28 @@ public class BuildReporter {
                 buildReporterConfig.getDevelocityUrl(),
                 indicateSuccess,
                 hasOtherPendingCheckRuns,
-                true,
-                true,
-                workflowReportJobIncludeStrategy);
-        if (reportComment.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-            reportComment = workflowReportFormatter.getReportComment(workflowReport,
-                    artifactsAvailable,
-                    checkRunOptional.orElse(null),
-                    statusCommentMarker,
-                    workflowRunIdMarker,
-                    WorkflowConstants.BUILD_SCANS_CHECK_RUN_MARKER,
-                    buildReporterConfig.isDevelocityEnabled(),
-                    buildReporterConfig.getDevelocityUrl(),
-                    indicateSuccess,
-                    hasOtherPendingCheckRuns,
-                    false,
-                    true,
-                    workflowReportJobIncludeStrategy);
-        }
-        if (reportComment.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-            reportComment = workflowReportFormatter.getReportComment(workflowReport,
-                    artifactsAvailable,
-                    checkRunOptional.orElse(null),
-                    statusCommentMarker,
-                    workflowRunIdMarker,
-                    WorkflowConstants.BUILD_SCANS_CHECK_RUN_MARKER,
-                    buildReporterConfig.isDevelocityEnabled(),
-                    buildReporterConfig.getDevelocityUrl(),
-                    indicateSuccess,
-                    hasOtherPendingCheckRuns,
-                    false,
-                    false,
-                    workflowReportJobIncludeStrategy);
-        }
-        if (reportComment.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-            reportComment = workflowReportFormatter.getReportComment(workflowReport,
-                    artifactsAvailable,
-                    checkRunOptional.orElse(null),
-                    statusCommentMarker,
-                    workflowRunIdMarker,
-                    WorkflowConstants.BUILD_SCANS_CHECK_RUN_MARKER,
-                    false,
-                    null,
-                    indicateSuccess,
-                    hasOtherPendingCheckRuns,
-                    false,
-                    false,
-                    workflowReportJobIncludeStrategy);
+                workflowReportJobIncludeStrategy,
+                GITHUB_FIELD_LENGTH_HARD_LIMIT);
+        if (!reportComment.isComplete()) {
+            LOG.info(workflowContext.getLogContext() + " - Report comment too long, left out: "
+                    + String.join(", ", reportComment.getElisions()));
         }
-        return Optional.of(reportComment);
+        return Optional.of(reportComment.getText());
     }
 
     public Optional<GHCheckRun> createCheckRun(GHWorkflowRun workflowRun,
             BuildReporterConfig buildReporterConfig,
             WorkflowContext workflowContext,
             boolean artifactsAvailable, WorkflowReport workflowReport) {
+        return createCheckRun(workflowRun, buildReporterConfig, workflowContext, artifactsAvailable,
+                new ReportFragments(workflowReportFormatter, workflowReport));
+    }
+
+    private Optional<GHCheckRun> createCheckRun(GHWorkflowRun workflowRun,
+            BuildReporterConfig buildReporterConfig,
+            WorkflowContext workflowContext,
+            boolean artifactsAvailable, ReportFragments reportFragments) {
+        WorkflowReport workflowReport = reportFragments.getReport();
         if (!workflowReport.hasTestFailures() || buildReporterConfig.isDryRun() || !buildReporterConfig.isCreateCheckRun()) {
             return Optional.empty();
         }
@@ -138,38 +122,209 @@ public class BuildReporter {
             String name = WorkflowConstants.BUILD_SUMMARY_CHECK_RUN_PREFIX + workflowRun.getHeadSha();
             String summary = workflowReportFormatter.getCheckRunReportSummary(workflowReport, workflowContext,
                     artifactsAvailable, workflowReportJobIncludeStrategy);
-            String checkRunReport = workflowReportFormatter.getCheckRunReport(workflowReport,
-                    buildReporterConfig.isDevelocityEnabled(), buildReporterConfig.getDevelocityUrl(), true, true);
-            if (checkRunReport.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-                checkRunReport = workflowReportFormatter.getCheckRunReport(workflowReport,
-                        buildReporterConfig.isDevelocityEnabled(), buildReporterConfig.getDevelocityUrl(), false, true);
+
+            List<WorkflowReportJob> annotatedJobs = workflowReport.getJobs();
+            boolean annotateDuplicates = false;
+            if (buildReporterConfig.isCheckRunPerJob()) {
+                // the check runs that could be created are linked from the build summary check run,
+                // the failures of the other jobs are included in it as usual
+                Map<WorkflowReportJob, GHCheckRun> jobCheckRuns = createJobCheckRuns(workflowRun, buildReporterConfig,
+                        workflowContext, reportFragments);
+                jobCheckRuns.forEach(reportFragments::setJobCheckRun);
+
+                // the failures of the jobs with a check run are annotated there
+                annotatedJobs = annotatedJobs.stream()
+                        .filter(j -> !jobCheckRuns.containsKey(j))
+                        .collect(Collectors.toList());
+                // the first occurrence of a failure might be in another check run
+                annotateDuplicates = !jobCheckRuns.isEmpty();
             }
-            if (checkRunReport.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-                checkRunReport = workflowReportFormatter.getCheckRunReport(workflowReport,
-                        buildReporterConfig.isDevelocityEnabled(), buildReporterConfig.getDevelocityUrl(), false, false);
+
+            String checkRunReport = getCheckRunReport(reportFragments, buildReporterConfig);
+
+            List<Annotation> annotations = new ArrayList<>();
+            int notAnnotatedFailures = collectAnnotations(annotatedJobs, annotateDuplicates,
+                    buildReporterConfig.getCheckRunMaxAnnotations(), annotations);
+
+            return Optional.of(publishCheckRun(workflowRun, name,
+                    appendNotAnnotatedFailuresNote(summary, annotations.size(), notAnnotatedFailures), checkRunReport,
+                    annotations, workflowContext));
+        } catch (Exception e) {
+            LOG.error(workflowContext.getLogContext() + " - Unable to create check run for test failures", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a check run for each job with failures, concurrently.
+     *
+     * @return the check runs of the jobs that could be created
+     */
+    private Map<WorkflowReportJob, GHCheckRun> createJobCheckRuns(GHWorkflowRun workflowRun,
+            BuildReporterConfig buildReporterConfig, WorkflowContext workflowContext, ReportFragments reportFragments) {
+        List<WorkflowReportJob> workflowReportJobs = reportFragments.getReport().getJobsWithReportedFailures();
+        if (workflowReportJobs.isEmpty()) {
+            return Map.of();
+        }
+
+        ExecutorService checkRunExecutor = BuildReporterExecutors.newFixedThreadPool(
+                Math.min(buildReporterConfig.getCheckRunParallelism(), workflowReportJobs.size()), "check-run");
+        try {
+            return createJobCheckRuns(workflowRun, buildReporterConfig, workflowContext, reportFragments, workflowReportJobs,
+                    checkRunExecutor);
+        } finally {
+            // the check runs being created are not aborted, they are linked if the interruption is only noticed later
+            checkRunExecutor.shutdown();
+        }
+    }
+
+    private Map<WorkflowReportJob, GHCheckRun> createJobCheckRuns(GHWorkflowRun workflowRun,
+            BuildReporterConfig buildReporterConfig, WorkflowContext workflowContext, ReportFragments reportFragments,
+            List<WorkflowReportJob> workflowReportJobs, ExecutorService checkRunExecutor) {
+        Map<WorkflowReportJob, CompletableFuture<GHCheckRun>> jobCheckRunFutures = new LinkedHashMap<>();
+        for (WorkflowReportJob workflowReportJob : workflowReportJobs) {
+            jobCheckRunFutures.put(workflowReportJob, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return createJobCheckRun(workflowRun, buildReporterConfig, workflowContext, reportFragments,
+                            workflowReportJob);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, checkRunExecutor));
+        }
+
+        Map<WorkflowReportJob, GHCheckRun> jobCheckRuns = new LinkedHashMap<>();
+        for (Entry<WorkflowReportJob, CompletableFuture<GHCheckRun>> jobCheckRunFuture : jobCheckRunFutures.entrySet()) {
+            try {
+                jobCheckRuns.put(jobCheckRunFuture.getKey(), jobCheckRunFuture.getValue().get());
+            } catch (ExecutionException e) {
+                LOG.error(workflowContext.getLogContext() + " - Unable to create check run for job "
+                        + jobCheckRunFuture.getKey().getName() + ", its failures are reported in the build summary",
+                        e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                jobCheckRunFutures.values().forEach(f -> f.cancel(true));
+                break;
             }
-            if (checkRunReport.length() > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
-                checkRunReport = workflowReportFormatter.getCheckRunReport(workflowReport,
-                        false, null, false, false);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // we still link the check runs that have been created in the meantime
+            jobCheckRunFutures.forEach((job, future) -> {
+                if (future.isDone() && !future.isCompletedExceptionally()) {
+                    jobCheckRuns.putIfAbsent(job, future.join());
+                }
+            });
+        }
+
+        return jobCheckRuns;
+    }
+
+    private GHCheckRun createJobCheckRun(GHWorkflowRun workflowRun, BuildReporterConfig buildReporterConfig,
+            WorkflowContext workflowContext, ReportFragments reportFragments, WorkflowReportJob workflowReportJob)
+            throws IOException {
+        String name = WorkflowConstants.BUILD_SUMMARY_CHECK_RUN_PREFIX + workflowRun.getHeadSha() + " - "
+                + workflowReportJob.getName();
+        String summary = workflowReportFormatter.getCheckRunJobReportSummary(reportFragments.getReport(),
+                workflowReportJob, workflowContext);
+
+        String checkRunReport = getCheckRunJobReport(reportFragments, workflowReportJob, buildReporterConfig);
+
+        // the first occurrence of a failure might be in another check run
+        List<Annotation> annotations = new ArrayList<>();
+        int notAnnotatedFailures = collectAnnotations(List.of(workflowReportJob), true,
+                buildReporterConfig.getCheckRunMaxAnnotations(), annotations);
+
+        return publishCheckRun(workflowRun, name,
+                appendNotAnnotatedFailuresNote(summary, annotations.size(), notAnnotatedFailures), checkRunReport,
+                annotations, workflowContext);
+    }
+
+    /**
+     * Creates the check run with its annotations.
+     * <p>
+     * GitHub only accepts a limited number of annotations per request,
+     * so we create the check run with the first batch and add the other ones with updates.
+     */
+    private static GHCheckRun publishCheckRun(GHWorkflowRun workflowRun, String name, String summary, String text,
+            List<Annotation> annotations, WorkflowContext workflowContext) throws IOException {
+        int firstBatchEnd = Math.min(annotations.size(), GITHUB_MAX_ANNOTATIONS_PER_REQUEST);
+        GHCheckRun checkRun = workflowRun.getRepository().createCheckRun(name, workflowRun.getHeadSha())
+                .add(createCheckRunOutput(name, summary, text, annotations.subList(0, firstBatchEnd)))
+                .withConclusion(GHCheckRun.Conclusion.NEUTRAL)
+                .withCompletedAt(new Date())
+                .create();
+
+        for (int i = firstBatchEnd; i < annotations.size(); i += GITHUB_MAX_ANNOTATIONS_PER_REQUEST) {
+            List<Annotation> batch = annotations.subList(i,
+                    Math.min(annotations.size(), i + GITHUB_MAX_ANNOTATIONS_PER_REQUEST));
+            try {
+                checkRun = checkRun.update()
+                        .add(createCheckRunOutput(name, summary, text, batch))
+                        .create();
+            } catch (IOException e) {
+                // the check run exists, we just miss some annotations
+                LOG.warn(workflowContext.getLogContext() + " - Unable to add annotations to check run "
+                        + checkRun.getHtmlUrl() + ", " + (annotations.size() - i) + " annotations are missing", e);
+                break;
             }
+        }
 
-            Output checkRunOutput = new Output(name, summary).withText(checkRunReport);
+        return checkRun;
+    }
+
+    private static String appendNotAnnotatedFailuresNote(String summary, int annotatedFailures, int notAnnotatedFailures) {
+        if (notAnnotatedFailures == 0) {
+            return summary;
+        }
+
+        return summary + "\n> [!NOTE]\n> Only the first " + annotatedFailures + " failures are annotated, "
+                + notAnnotatedFailures + " more failures are only listed in the report.\n";
+    }
 
-            for (WorkflowReportJob workflowReportJob : workflowReport.getJobs()) {
-                if (!workflowReportJob.hasTestFailures()) {
+    /**
+     * Collects the annotations of the test failures, by order of priority: the jobs and modules are taken in the order of
+     * the report. There is one annotation per location and at most {@code maxAnnotations}.
+     *
+     * @param annotateDuplicates whether the failures already reported in another job are annotated, it is needed when the
+     *        other job is annotated in another check run
+     * @return the number of failures that were not annotated because of the cap
+     */
+    private int collectAnnotations(List<WorkflowReportJob> workflowReportJobs, boolean annotateDuplicates,
+            int maxAnnotations, List<Annotation> annotations) {
+        Set<String> annotatedLocations = new HashSet<>();
+        int notAnnotatedFailures = 0;
+
+        for (WorkflowReportJob workflowReportJob : workflowReportJobs) {
+            if (!workflowReportJob.hasTestFailures()) {
+                continue;
+            }
+
+            for (WorkflowReportModule workflowReportModule : workflowReportJob.getModules()) {
+                if (!workflowReportModule.hasTestFailures()) {
                     continue;
                 }
 
-                List<WorkflowReportTestCase> annotatedWorkflowReportTestCases = workflowReportJob.getModules().stream()
-                        .filter(m -> m.hasTestFailures())
-                        .flatMap(m -> m.getTestFailures().stream())
-                        .collect(Collectors.toList());
+                for (WorkflowReportTestCase workflowReportTestCase : workflowReportModule.getTestFailures()) {
+                    // the duplicates of a failure reported in another job would be annotated at the same place
+                    if (workflowReportTestCase.isDuplicate() && !annotateDuplicates) {
+                        continue;
+                    }
+
+                    int line = StringUtils.isNumeric(workflowReportTestCase.getFailureErrorLine())
+                            ? Integer.parseInt(workflowReportTestCase.getFailureErrorLine())
+                            : 1;
+                    // several annotations at the same place are hard to read, the first one is the most relevant
+                    if (!annotatedLocations.add(workflowReportTestCase.getClassPath() + ":" + line)) {
+                        continue;
+                    }
 
-                for (WorkflowReportTestCase workflowReportTestCase : annotatedWorkflowReportTestCases) {
-                    checkRunOutput.add(new Annotation(workflowReportTestCase.getClassPath(),
-                            StringUtils.isNumeric(workflowReportTestCase.getFailureErrorLine())
-                                    ? Integer.valueOf(workflowReportTestCase.getFailureErrorLine())
-                                    : 1,
+                    if (annotations.size() >= maxAnnotations) {
+                        notAnnotatedFailures++;
+                        continue;
+                    }
+
+                    annotations.add(new Annotation(workflowReportTestCase.getClassPath(),
+                            line,
                             AnnotationLevel.FAILURE,
                             StringUtils.isNotBlank(workflowReportTestCase.getFailureDetail())
                                     ? stackTraceShortener.shorten(workflowReportTestCase.getFailureDetail(),
@@ -181,16 +336,68 @@ public class BuildReporter {
                                             GITHUB_FIELD_LENGTH_HARD_LIMIT)));
                 }
             }
+        }
 
-            GHCheckRunBuilder checkRunBuilder = workflowRun.getRepository().createCheckRun(name, workflowRun.getHeadSha())
-                    .add(checkRunOutput)
-                    .withConclusion(GHCheckRun.Conclusion.NEUTRAL)
-                    .withCompletedAt(new Date());
+        return notAnnotatedFailures;
+    }
 
-            return Optional.of(checkRunBuilder.create());
-        } catch (Exception e) {
-            LOG.error(workflowContext.getLogContext() + " - Unable to create check run for test failures", e);
-            return Optional.empty();
+    private static Output createCheckRunOutput(String name, String summary, String text, List<Annotation> annotations) {
+        Output output = new Output(name, summary).withText(text);
+        for (Annotation annotation : annotations) {
+            output.add(annotation);
+        }
+        return output;
+    }
+
+    private String getCheckRunJobReport(ReportFragments reportFragments, WorkflowReportJob workflowReportJob,
+            BuildReporterConfig buildReporterConfig) {
+        WorkflowReport workflowReport = reportFragments.getReport();
+        boolean develocityEnabled = buildReporterConfig.isDevelocityEnabled();
+        String develocityUrl = buildReporterConfig.getDevelocityUrl();
+
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            // the estimate is a lower bound, it lets us skip the levels of detail that can't fit without rendering them
+            if (detailLevel != ReportDetailLevel.MINIMAL
+                    && CheckRunReportSizeEstimator.estimateJob(workflowReport, workflowReportJob, develocityEnabled,
+                            develocityUrl, detailLevel) > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
+                continue;
+            }
+
+            Optional<String> checkRunJobReport = workflowReportFormatter.getCheckRunJobReport(reportFragments,
+                    workflowReportJob, develocityEnabled, develocityUrl, detailLevel, GITHUB_FIELD_LENGTH_HARD_LIMIT);
+            if (checkRunJobReport.isPresent()) {
+                return checkRunJobReport.get();
+            }
         }
+
+        return StringUtils.abbreviate(workflowReportFormatter.getCheckRunJobReport(reportFragments, workflowReportJob,
+                develocityEnabled, develocityUrl, ReportDetailLevel.MINIMAL), GITHUB_FIELD_LENGTH_HARD_LIMIT);
+    }
+
+    private String getCheckRunReport(ReportFragments reportFragments, BuildReporterConfig buildReporterConfig) {
+        WorkflowReport workflowReport = reportFragments.getReport();
+        boolean develocityEnabled = buildReporterConfig.isDevelocityEnabled();
+        String develocityUrl = buildReporterConfig.getDevelocityUrl();
+
+        for (ReportDetailLevel detailLevel : ReportDetailLevel.values()) {
+            // the estimate is a lower bound, it lets us skip the levels of detail that can't fit without rendering them,
+            // it includes the failures of all the jobs so it doesn't apply when some of them have their own check run
+            if (detailLevel != ReportDetailLevel.MINIMAL && !reportFragments.hasJobCheckRuns()
+                    && CheckRunReportSizeEstimator.estimate(workflowReport, develocityEnabled, develocityUrl,
+                            detailLevel) > GITHUB_FIELD_LENGTH_HARD_LIMIT) {
+                continue;
+            }
+
+            Optional<String> checkRunReport = workflowReportFormatter.getCheckRunReport(reportFragments,
+                    develocityEnabled, develocityUrl, detailLevel, GITHUB_FIELD_LENGTH_HARD_LIMIT);
+            if (checkRunReport.isPresent()) {
+                return checkRunReport.get();
+            }
+        }
+
+        return workflowReportFormatter.getCheckRunReport(reportFragments, false, null, ReportDetailLevel.MINIMAL,
+                GITHUB_FIELD_LENGTH_HARD_LIMIT)
+                .orElseGet(() -> StringUtils.abbreviate(workflowReportFormatter.getCheckRunReport(reportFragments, false,
+                        null, ReportDetailLevel.MINIMAL, Integer.MAX_VALUE).orElseThrow(), GITHUB_FIELD_LENGTH_HARD_LIMIT));
     }
 }
@@ -1,19 +1,23 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -36,36 +40,49 @@ public class BuildReporterActionHandler {
     @Inject
     BuildReporter buildReporter;
 
+    @Inject
+    BuildReportsExtractor buildReportsExtractor;
+
     public Optional<String> generateReport(String workflowName, GHWorkflowRun workflowRun, Path buildReportsArtifactsPath,
             BuildReporterConfig buildReporterConfig) throws IOException {
-        Map<String, Optional<BuildReports>> buildReportsMap = prepareBuildReportMap(buildReportsArtifactsPath,
-                workflowRun.getRunAttempt());
-
-        WorkflowContext workflowContext = new WorkflowContext(workflowRun);
-        List<GHWorkflowJob> jobs = workflowRun.listJobs().toList()
-                .stream()
-                .filter(j -> j.getConclusion() != Conclusion.UNKNOWN &&
-                        j.getConclusion() != Conclusion.ACTION_REQUIRED &&
-                        j.getConclusion() != Conclusion.NEUTRAL &&
-                        j.getConclusion() != Conclusion.STALE)
-                .sorted(buildReporterConfig.getJobNameComparator())
-                .collect(Collectors.toList());
-
-        Optional<WorkflowReport> workflowReportOptional = workflowRunAnalyzer.getReport(workflowName, workflowRun,
-                workflowContext,
-                buildReporterConfig.getIgnoredFlakyTests(),
-                jobs,
-                buildReportsMap);
-        if (workflowReportOptional.isEmpty()) {
-            return Optional.empty();
-        }
+        // the nested archives are extracted to temporary directories, the artifacts directory is left alone
+        List<Path> temporaryDirectories = Collections.synchronizedList(new ArrayList<>());
+        try {
+            Map<String, Optional<BuildReports>> buildReportsMap = prepareBuildReportMap(buildReportsArtifactsPath,
+                    workflowRun.getRunAttempt(), buildReporterConfig, temporaryDirectories);
+
+            WorkflowContext workflowContext = new WorkflowContext(workflowRun);
+            List<GHWorkflowJob> jobs = workflowRun.listJobs().toList()
+                    .stream()
+                    .filter(j -> j.getConclusion() != Conclusion.UNKNOWN &&
+                            j.getConclusion() != Conclusion.ACTION_REQUIRED &&
+                            j.getConclusion() != Conclusion.NEUTRAL &&
+                            j.getConclusion() != Conclusion.STALE)
+                    .sorted(buildReporterConfig.getJobNameComparator())
+                    .collect(Collectors.toList());
+
+            Optional<WorkflowReport> workflowReportOptional = workflowRunAnalyzer.getReport(workflowName, workflowRun,
+                    workflowContext,
+                    buildReporterConfig,
+                    jobs,
+                    buildReportsMap,
+                    false);
+            if (workflowReportOptional.isEmpty()) {
+                return Optional.empty();
+            }
 
-        return buildReporter.generateReportComment(workflowName, workflowRun, buildReporterConfig,
-                workflowContext,
-                workflowReportOptional.get(), true, false, false);
+            return buildReporter.generateReportComment(workflowName, workflowRun, buildReporterConfig,
+                    workflowContext,
+                    workflowReportOptional.get(), true, false, false);
+        } finally {
+            for (Path temporaryDirectory : temporaryDirectories) {
+                deleteTemporaryDirectory(temporaryDirectory);
+            }
+        }
     }
 
-    private Map<String, Optional<BuildReports>> prepareBuildReportMap(Path buildReportsArtifactsPath, long runAttempt) {
+    private Map<String, Optional<BuildReports>> prepareBuildReportMap(Path buildReportsArtifactsPath, long runAttempt,
+            BuildReporterConfig buildReporterConfig, List<Path> temporaryDirectories) {
         if (!Files.exists(buildReportsArtifactsPath) || !Files.isDirectory(buildReportsArtifactsPath)) {
             return Map.of();
         }
@@ -79,97 +96,96 @@ public class BuildReporterActionHandler {
             return Map.of();
         }
 
-        Map<String, Optional<BuildReports>> buildReportsMap = new HashMap<>();
         String buildReportsArtifactPrefix = useNewBuildReportsArtifactNamePattern
                 ? WorkflowConstants.BUILD_REPORTS_ARTIFACT_PREFIX + runAttempt + "-"
                 : WorkflowConstants.BUILD_REPORTS_ARTIFACT_PREFIX;
 
+        List<Path> jobBuildReportsDirectories;
         try (Stream<Path> jobBuildReportsDirectoriesStream = Files.list(buildReportsArtifactsPath).filter(Files::isDirectory)
                 .filter(d -> d.getFileName().toString().startsWith(buildReportsArtifactPrefix))) {
+            jobBuildReportsDirectories = jobBuildReportsDirectoriesStream.collect(Collectors.toList());
+        } catch (IOException e) {
+            LOG.error("Unable to extract build reports from directory " + buildReportsArtifactsPath, e);
 
-            jobBuildReportsDirectoriesStream.forEach(jobBuildReportsDirectory -> {
+            return Map.of();
+        }
+
+        if (jobBuildReportsDirectories.isEmpty()) {
+            return Map.of();
+        }
+
+        // the archives are on the local disk so we process the jobs in parallel, using all the available cores
+        Map<String, Future<Optional<BuildReports>>> buildReportsFutures = new LinkedHashMap<>();
+        ExecutorService executor = BuildReporterExecutors.newFixedThreadPool(
+                Math.min(Runtime.getRuntime().availableProcessors(), jobBuildReportsDirectories.size()), "extraction");
+        try {
+            for (Path jobBuildReportsDirectory : jobBuildReportsDirectories) {
                 String jobName = jobBuildReportsDirectory.getFileName().toString()
                         .replace(buildReportsArtifactPrefix, "");
 
-                BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobBuildReportsDirectory);
-
-                Path buildReportsArchive = jobBuildReportsDirectory.resolve(BuildReportsUnarchiver.NESTED_ZIP_FILE_NAME);
-                if (Files.isReadable(buildReportsArchive)) {
-                    try {
-                        try (InputStream buildReportsZipIs = Files.newInputStream(buildReportsArchive)) {
-                            buildReportsMap.put(jobName, Optional.of(unzip(buildReportsZipIs,
-                                    Files.createTempDirectory("build-reports-analyzer-action-" + jobName))));
-                        }
-                    } catch (IOException e) {
-                        LOG.error("Unable to extract build reports from archive " + buildReportsArchive, e);
-                    }
-                } else {
-                    try (Stream<Path> jobBuildReportsFilesStream = Files.walk(jobBuildReportsDirectory)) {
-                        jobBuildReportsFilesStream.forEach(p -> buildReportsBuilder.addPath(p));
-
-                        buildReportsMap.put(jobName, Optional.of(buildReportsBuilder.build()));
-                    } catch (IOException e) {
-                        LOG.error("Unable to extract build reports from subdirectory " + jobBuildReportsDirectory, e);
-
-                        buildReportsMap.put(jobName, Optional.empty());
-                    }
+                buildReportsFutures.put(jobName, executor.submit(
+                        () -> getBuildReports(jobName, jobBuildReportsDirectory, buildReporterConfig,
+                                temporaryDirectories)));
+            }
+
+            Map<String, Optional<BuildReports>> buildReportsMap = new HashMap<>();
+            for (Entry<String, Future<Optional<BuildReports>>> buildReportsFutureEntry : buildReportsFutures.entrySet()) {
+                String jobName = buildReportsFutureEntry.getKey();
+                try {
+                    buildReportsMap.put(jobName, buildReportsFutureEntry.getValue().get());
+                } catch (ExecutionException e) {
+                    LOG.error("Unable to extract build reports for job " + jobName, e.getCause());
+                    buildReportsMap.put(jobName, Optional.empty());
                 }
-            });
+            }
 
             return buildReportsMap;
-        } catch (IOException e) {
-            LOG.error("Unable to extract build reports from directory " + buildReportsArtifactsPath, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while extracting build reports from directory " + buildReportsArtifactsPath, e);
 
             return Map.of();
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private BuildReports unzip(InputStream inputStream, Path jobDirectory) throws IOException {
-        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
-
-        try (final ZipInputStream zis = new ZipInputStream(inputStream)) {
-            final byte[] buffer = new byte[1024];
-            ZipEntry zipEntry = zis.getNextEntry();
-            while (zipEntry != null) {
-                final Path newPath = getZipEntryPath(jobDirectory, zipEntry);
-                final File newFile = newPath.toFile();
-
-                if (zipEntry.isDirectory()) {
-                    if (!newFile.isDirectory() && !newFile.mkdirs()) {
-                        throw new IOException("Failed to create directory " + newFile);
-                    }
-                } else {
-                    File parent = newFile.getParentFile();
-                    if (!parent.isDirectory() && !parent.mkdirs()) {
-                        throw new IOException("Failed to create directory " + parent);
-                    }
-
-                    final FileOutputStream fos = new FileOutputStream(newFile);
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-
-                    fos.close();
-                }
+    private Optional<BuildReports> getBuildReports(String jobName, Path jobBuildReportsDirectory,
+            BuildReporterConfig buildReporterConfig, List<Path> temporaryDirectories) {
+        Path buildReportsArchive = jobBuildReportsDirectory.resolve(BuildReportsExtractor.NESTED_ZIP_FILE_NAME);
+        if (Files.isReadable(buildReportsArchive)) {
+            try {
+                Path temporaryDirectory = Files.createTempDirectory("build-reports-analyzer-action-" + jobName);
+                temporaryDirectories.add(temporaryDirectory);
 
-                buildReportsBuilder.addPath(newPath);
+                return Optional.of(buildReportsExtractor.extract(buildReportsArchive, temporaryDirectory,
+                        buildReporterConfig));
+            } catch (IOException e) {
+                LOG.error("Unable to extract build reports from archive " + buildReportsArchive, e);
 
-                zipEntry = zis.getNextEntry();
+                return Optional.empty();
             }
-            zis.closeEntry();
         }
 
-        return buildReportsBuilder.build();
-    }
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobBuildReportsDirectory);
+        try (Stream<Path> jobBuildReportsFilesStream = Files.walk(jobBuildReportsDirectory)) {
+            jobBuildReportsFilesStream.forEach(p -> buildReportsBuilder.addPath(p));
 
-    private static Path getZipEntryPath(Path destinationDirectory, ZipEntry zipEntry) throws IOException {
-        Path destinationFile = destinationDirectory.resolve(zipEntry.getName());
+            return Optional.of(buildReportsBuilder.build());
+        } catch (IOException e) {
+            LOG.error("Unable to extract build reports from subdirectory " + jobBuildReportsDirectory, e);
 
-        if (!destinationFile.toAbsolutePath().startsWith(destinationDirectory.toAbsolutePath())) {
-            throw new IOException("Entry is outside of the target dir: " + zipEntry.getName());
+            return Optional.empty();
         }
+    }
 
-        return destinationFile;
+    private static void deleteTemporaryDirectory(Path temporaryDirectory) {
+        try (Stream<Path> files = Files.walk(temporaryDirectory)) {
+            files.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        } catch (IOException e) {
+            LOG.error("Unable to delete temp directory " + temporaryDirectory);
+        }
     }
 }
@@ -1,5 +1,7 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.Set;
 
@@ -14,22 +16,65 @@ public class BuildReporterConfig {
     private final Comparator<GHWorkflowJob> workflowJobComparator;
     private final Set<String> monitoredWorkflows;
     private final boolean createCheckRun;
+    private final boolean checkRunPerJob;
     private final boolean develocityEnabled;
     private final String develocityUrl;
     private final Set<String> ignoredFlakyTests;
+    private final int downloadParallelism;
+    private final boolean inMemoryAnalysis;
+    private final Path artifactCacheDirectory;
+    private final long artifactCacheMaxSize;
+    private final long maxExtractedSize;
+    private final int maxExtractedEntries;
+    private final int maxCompressionRatio;
+    private final int eventQueueMaxConcurrency;
+    private final int eventQueueCapacity;
+    private final BuildReporterEventQueue.OverflowPolicy eventQueueOverflowPolicy;
+    private final long admissionMaxReservedSize;
+    private final int admissionExpansionFactor;
+    private final Duration admissionMaxWait;
+    private final int jobParallelism;
+    private final int moduleParallelism;
+    private final Duration analysisTimeout;
+    private final int checkRunMaxAnnotations;
+    private final int checkRunParallelism;
 
     private BuildReporterConfig(boolean dryRun, WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy,
             Comparator<GHWorkflowJob> workflowJobComparator,
-            Set<String> monitoredWorkflows, boolean createCheckRun, boolean develocityEnabled,
-            String develocityUrl, Set<String> ignoredFlakyTests) {
+            Set<String> monitoredWorkflows, boolean createCheckRun, boolean checkRunPerJob, boolean develocityEnabled,
+            String develocityUrl, Set<String> ignoredFlakyTests, int downloadParallelism, boolean inMemoryAnalysis,
+            Path artifactCacheDirectory, long artifactCacheMaxSize, long maxExtractedSize, int maxExtractedEntries,
+            int maxCompressionRatio, int eventQueueMaxConcurrency, int eventQueueCapacity,
+            BuildReporterEventQueue.OverflowPolicy eventQueueOverflowPolicy, long admissionMaxReservedSize,
+            int admissionExpansionFactor, Duration admissionMaxWait, int jobParallelism, int moduleParallelism,
+            Duration analysisTimeout, int checkRunMaxAnnotations, int checkRunParallelism) {
         this.dryRun = dryRun;
         this.workflowReportJobIncludeStrategy = workflowReportJobIncludeStrategy;
         this.workflowJobComparator = workflowJobComparator;
         this.monitoredWorkflows = monitoredWorkflows;
         this.createCheckRun = createCheckRun;
+        this.checkRunPerJob = checkRunPerJob;
         this.develocityEnabled = develocityEnabled;
         this.develocityUrl = develocityUrl;
         this.ignoredFlakyTests = ignoredFlakyTests;
+        this.downloadParallelism = downloadParallelism;
+        this.inMemoryAnalysis = inMemoryAnalysis;
+        this.artifactCacheDirectory = artifactCacheDirectory;
+        this.artifactCacheMaxSize = artifactCacheMaxSize;
+        this.maxExtractedSize = maxExtractedSize;
+        this.maxExtractedEntries = maxExtractedEntries;
+        this.maxCompressionRatio = maxCompressionRatio;
+        this.eventQueueMaxConcurrency = eventQueueMaxConcurrency;
+        this.eventQueueCapacity = eventQueueCapacity;
+        this.eventQueueOverflowPolicy = eventQueueOverflowPolicy;
+        this.admissionMaxReservedSize = admissionMaxReservedSize;
+        this.admissionExpansionFactor = admissionExpansionFactor;
+        this.admissionMaxWait = admissionMaxWait;
+        this.jobParallelism = jobParallelism;
+        this.moduleParallelism = moduleParallelism;
+        this.analysisTimeout = analysisTimeout;
+        this.checkRunMaxAnnotations = checkRunMaxAnnotations;
+        this.checkRunParallelism = checkRunParallelism;
     }
 
     public boolean isDryRun() {
@@ -52,6 +97,10 @@ public class BuildReporterConfig {
         return createCheckRun;
     }
 
+    public boolean isCheckRunPerJob() {
+        return checkRunPerJob;
+    }
+
     public boolean isDevelocityEnabled() {
         return develocityEnabled;
     }
@@ -64,6 +113,82 @@ public class BuildReporterConfig {
         return ignoredFlakyTests;
     }
 
+    public int getDownloadParallelism() {
+        return downloadParallelism;
+    }
+
+    public boolean isInMemoryAnalysis() {
+        return inMemoryAnalysis;
+    }
+
+    public boolean isArtifactCacheEnabled() {
+        return artifactCacheDirectory != null;
+    }
+
+    public Path getArtifactCacheDirectory() {
+        return artifactCacheDirectory;
+    }
+
+    public long getArtifactCacheMaxSize() {
+        return artifactCacheMaxSize;
+    }
+
+    public long getMaxExtractedSize() {
+        return maxExtractedSize;
+    }
+
+    public int getMaxExtractedEntries() {
+        return maxExtractedEntries;
+    }
+
+    public int getMaxCompressionRatio() {
+        return maxCompressionRatio;
+    }
+
+    public int getEventQueueMaxConcurrency() {
+        return eventQueueMaxConcurrency;
+    }
+
+    public int getEventQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+    public BuildReporterEventQueue.OverflowPolicy getEventQueueOverflowPolicy() {
+        return eventQueueOverflowPolicy;
+    }
+
+    public long getAdmissionMaxReservedSize() {
+        return admissionMaxReservedSize;
+    }
+
+    public int getAdmissionExpansionFactor() {
+        return admissionExpansionFactor;
+    }
+
+    public Duration getAdmissionMaxWait() {
+        return admissionMaxWait;
+    }
+
+    public int getJobParallelism() {
+        return jobParallelism;
+    }
+
+    public int getModuleParallelism() {
+        return moduleParallelism;
+    }
+
+    public Duration getAnalysisTimeout() {
+        return analysisTimeout;
+    }
+
+    public int getCheckRunMaxAnnotations() {
+        return checkRunMaxAnnotations;
+    }
+
+    public int getCheckRunParallelism() {
+        return checkRunParallelism;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -72,12 +197,31 @@ public class BuildReporterConfig {
 
         private boolean dryRun = false;
         private boolean createCheckRun = true;
+        private boolean checkRunPerJob = false;
         private WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy;
         private Comparator<GHWorkflowJob> workflowJobComparator;
         private Set<String> monitoredWorkflows = Set.of();
         private boolean develocityEnabled;
         private String develocityUrl;
         private Set<String> ignoredFlakyTests = Set.of();
+        private int downloadParallelism = 4;
+        private boolean inMemoryAnalysis = false;
+        private Path artifactCacheDirectory;
+        private long artifactCacheMaxSize = 1024L * 1024 * 1024;
+        private long maxExtractedSize = 2L * 1024 * 1024 * 1024;
+        private int maxExtractedEntries = 100_000;
+        private int maxCompressionRatio = 200;
+        private int eventQueueMaxConcurrency = 4;
+        private int eventQueueCapacity = 100;
+        private BuildReporterEventQueue.OverflowPolicy eventQueueOverflowPolicy = BuildReporterEventQueue.OverflowPolicy.REJECT;
+        private long admissionMaxReservedSize = 4L * 1024 * 1024 * 1024;
+        private int admissionExpansionFactor = 4;
+        private Duration admissionMaxWait = Duration.ofMinutes(5);
+        private int jobParallelism = 4;
+        private int moduleParallelism = 4;
+        private Duration analysisTimeout = Duration.ofMinutes(10);
+        private int checkRunMaxAnnotations = 500;
+        private int checkRunParallelism = 4;
 
         public Builder dryRun(boolean dryRun) {
             this.dryRun = dryRun;
@@ -104,6 +248,15 @@ public class BuildReporterConfig {
             return this;
         }
 
+        /**
+         * Report the failures of each failing job in a dedicated check run, the build summary check run pointing to them.
+         * It avoids dropping details when the failures of all the jobs don't fit in a single check run.
+         */
+        public Builder checkRunPerJob(boolean checkRunPerJob) {
+            this.checkRunPerJob = checkRunPerJob;
+            return this;
+        }
+
         public Builder enableDevelocity(boolean develocityEnabled) {
             this.develocityEnabled = develocityEnabled;
             return this;
@@ -119,10 +272,192 @@ public class BuildReporterConfig {
             return this;
         }
 
+        /**
+         * The maximum number of build reports artifacts downloaded and extracted concurrently.
+         */
+        public Builder downloadParallelism(int downloadParallelism) {
+            if (downloadParallelism < 1) {
+                throw new IllegalArgumentException("downloadParallelism should be at least 1");
+            }
+            this.downloadParallelism = downloadParallelism;
+            return this;
+        }
+
+        /**
+         * Parse the build reports while streaming the artifacts instead of extracting them to a temporary directory.
+         */
+        public Builder inMemoryAnalysis(boolean inMemoryAnalysis) {
+            this.inMemoryAnalysis = inMemoryAnalysis;
+            return this;
+        }
+
+        /**
+         * Keep the downloaded artifacts in this directory so that they are not downloaded again when analyzing the same
+         * workflow run again. The cache is disabled if no directory is defined.
+         */
+        public Builder artifactCacheDirectory(Path artifactCacheDirectory) {
+            this.artifactCacheDirectory = artifactCacheDirectory;
+            return this;
+        }
+
+        /**
+         * The maximum size in bytes of the artifact cache, the least recently used artifacts are evicted when it is reached.
+         */
+        public Builder artifactCacheMaxSize(long artifactCacheMaxSize) {
+            this.artifactCacheMaxSize = artifactCacheMaxSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of bytes inflated when extracting a build reports archive.
+         */
+        public Builder maxExtractedSize(long maxExtractedSize) {
+            this.maxExtractedSize = maxExtractedSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of entries of a build reports archive.
+         */
+        public Builder maxExtractedEntries(int maxExtractedEntries) {
+            this.maxExtractedEntries = maxExtractedEntries;
+            return this;
+        }
+
+        /**
+         * Maximum ratio between the inflated and the compressed size of a build reports archive.
+         */
+        public Builder maxCompressionRatio(int maxCompressionRatio) {
+            this.maxCompressionRatio = maxCompressionRatio;
+            return this;
+        }
+
+        /**
+         * The number of events processed concurrently by the {@link BuildReporterEventQueue}.
+         * The queue is created when the first event is submitted, with the settings of its configuration.
+         */
+        public Builder eventQueueMaxConcurrency(int eventQueueMaxConcurrency) {
+            if (eventQueueMaxConcurrency < 1) {
+                throw new IllegalArgumentException("eventQueueMaxConcurrency should be at least 1");
+            }
+            this.eventQueueMaxConcurrency = eventQueueMaxConcurrency;
+            return this;
+        }
+
+        /**
+         * The maximum number of events pending in the {@link BuildReporterEventQueue}.
+         * The queue is created when the first event is submitted, with the settings of its configuration.
+         */
+        public Builder eventQueueCapacity(int eventQueueCapacity) {
+            if (eventQueueCapacity < 1) {
+                throw new IllegalArgumentException("eventQueueCapacity should be at least 1");
+            }
+            this.eventQueueCapacity = eventQueueCapacity;
+            return this;
+        }
+
+        /**
+         * What to do with an event submitted to the {@link BuildReporterEventQueue} when it is full.
+         */
+        public Builder eventQueueOverflowPolicy(BuildReporterEventQueue.OverflowPolicy eventQueueOverflowPolicy) {
+            this.eventQueueOverflowPolicy = eventQueueOverflowPolicy;
+            return this;
+        }
+
+        /**
+         * The maximum number of bytes reserved by the analyses running concurrently.
+         */
+        public Builder admissionMaxReservedSize(long admissionMaxReservedSize) {
+            if (admissionMaxReservedSize < 1) {
+                throw new IllegalArgumentException("admissionMaxReservedSize should be at least 1");
+            }
+            this.admissionMaxReservedSize = admissionMaxReservedSize;
+            return this;
+        }
+
+        /**
+         * The artifacts are compressed, this is the ratio applied to their size to estimate what an analysis will need
+         * once they are inflated.
+         */
+        public Builder admissionExpansionFactor(int admissionExpansionFactor) {
+            if (admissionExpansionFactor < 1) {
+                throw new IllegalArgumentException("admissionExpansionFactor should be at least 1");
+            }
+            this.admissionExpansionFactor = admissionExpansionFactor;
+            return this;
+        }
+
+        /**
+         * How long an analysis waits for its reservation before the report is generated without the build reports.
+         */
+        public Builder admissionMaxWait(Duration admissionMaxWait) {
+            this.admissionMaxWait = admissionMaxWait;
+            return this;
+        }
+
+        /**
+         * The maximum number of jobs of a workflow run analyzed concurrently.
+         */
+        public Builder jobParallelism(int jobParallelism) {
+            if (jobParallelism < 1) {
+                throw new IllegalArgumentException("jobParallelism should be at least 1");
+            }
+            this.jobParallelism = jobParallelism;
+            return this;
+        }
+
+        /**
+         * The maximum number of modules of a workflow run analyzed concurrently.
+         */
+        public Builder moduleParallelism(int moduleParallelism) {
+            if (moduleParallelism < 1) {
+                throw new IllegalArgumentException("moduleParallelism should be at least 1");
+            }
+            this.moduleParallelism = moduleParallelism;
+            return this;
+        }
+
+        /**
+         * How long the analysis of the jobs of a workflow run can take, the jobs not analyzed in time being reported
+         * without their build reports.
+         */
+        public Builder analysisTimeout(Duration analysisTimeout) {
+            this.analysisTimeout = analysisTimeout;
+            return this;
+        }
+
+        /**
+         * The maximum number of annotations of a check run, the failures above the cap are only listed in the report.
+         */
+        public Builder checkRunMaxAnnotations(int checkRunMaxAnnotations) {
+            if (checkRunMaxAnnotations < 0) {
+                throw new IllegalArgumentException("checkRunMaxAnnotations should be positive");
+            }
+            this.checkRunMaxAnnotations = checkRunMaxAnnotations;
+            return this;
+        }
+
+        /**
+         * The maximum number of check runs of the jobs created concurrently when {@link #checkRunPerJob(boolean)} is enabled.
+         */
+        public Builder checkRunParallelism(int checkRunParallelism) {
+            if (checkRunParallelism < 1) {
+                throw new IllegalArgumentException("checkRunParallelism should be at least 1");
+            }
+            this.checkRunParallelism = checkRunParallelism;
+            return this;
+        }
+
         public BuildReporterConfig build() {
             return new BuildReporterConfig(dryRun, workflowReportJobIncludeStrategy,
                     workflowJobComparator != null ? workflowJobComparator : DefaultJobNameComparator.INSTANCE,
-                    monitoredWorkflows, createCheckRun, develocityEnabled, develocityUrl, ignoredFlakyTests);
+                    monitoredWorkflows, createCheckRun, checkRunPerJob, develocityEnabled, develocityUrl, ignoredFlakyTests,
+                    downloadParallelism, inMemoryAnalysis, artifactCacheDirectory, artifactCacheMaxSize,
+                    maxExtractedSize, maxExtractedEntries, maxCompressionRatio,
+                    eventQueueMaxConcurrency, eventQueueCapacity, eventQueueOverflowPolicy,
+                    admissionMaxReservedSize, admissionExpansionFactor, admissionMaxWait,
+                    jobParallelism, moduleParallelism, analysisTimeout, checkRunMaxAnnotations,
+                    checkRunParallelism);
         }
     }
 
@@ -13,6 +13,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -20,13 +21,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
-import org.awaitility.Awaitility;
-import org.awaitility.core.ConditionTimeoutException;
 import org.jboss.logging.Logger;
 import org.kohsuke.github.GHArtifact;
 import org.kohsuke.github.GHEvent;
@@ -53,6 +55,20 @@ public class BuildReporterEventHandler {
 
     private static final String LABEL_FLAKY_TEST = "triage/flaky-test";
 
+    /**
+     * When analyzing the reports in memory, the directory is only used to resolve the module names:
+     * it is never created nor deleted.
+     */
+    private static final Path IN_MEMORY_BUILD_REPORTS_DIRECTORY = Path.of("build-reports-analyzer");
+
+    private static final RetryPolicy ARTIFACTS_RETRY_POLICY = RetryPolicy.builder()
+            .initialDelay(Duration.ofSeconds(5))
+            .delay(Duration.ofSeconds(5))
+            .maxDelay(Duration.ofSeconds(30))
+            .attemptTimeout(Duration.ofMinutes(1))
+            .maxDuration(Duration.ofMinutes(5))
+            .build();
+
     @Inject
     WorkflowRunAnalyzer workflowRunAnalyzer;
 
@@ -62,6 +78,12 @@ public class BuildReporterEventHandler {
     @Inject
     BuildReportsUnarchiver buildReportsUnarchiver;
 
+    @Inject
+    WorkflowRunArtifactsTracker workflowRunArtifactsTracker;
+
+    @Inject
+    AnalysisAdmissionController analysisAdmissionController;
+
     public void handle(GHEventPayload.WorkflowRun workflowRunPayload,
             BuildReporterConfig buildReporterConfig,
             GitHub gitHub, DynamicGraphQLClient gitHubGraphQLClient) throws IOException {
@@ -90,6 +112,26 @@ public class BuildReporterEventHandler {
         }
     }
 
+    /**
+     * Handling the {@code workflow_job} events is optional: it allows to list the artifacts as soon as the jobs complete
+     * and to prefetch them when the artifact cache is enabled, instead of polling the artifacts once the workflow run
+     * is completed.
+     */
+    public void handleWorkflowJob(GHEventPayload.WorkflowJob workflowJobPayload,
+            BuildReporterConfig buildReporterConfig) {
+        if (buildReporterConfig.getMonitoredWorkflows() == null ||
+                buildReporterConfig.getMonitoredWorkflows().isEmpty()) {
+            return;
+        }
+
+        if (!Actions.COMPLETED.equals(workflowJobPayload.getAction())) {
+            return;
+        }
+
+        workflowRunArtifactsTracker.jobCompleted(workflowJobPayload.getRepository(), workflowJobPayload.getWorkflowJob(),
+                buildReporterConfig);
+    }
+
     private void handleCompleted(GHWorkflow workflow,
             GHWorkflowRun workflowRun,
             BuildReporterConfig buildReporterConfig,
@@ -97,17 +139,17 @@ public class BuildReporterEventHandler {
             DynamicGraphQLClient gitHubGraphQLClient) throws IOException {
         List<GHArtifact> artifacts;
         boolean artifactsAvailable;
-        try {
-            ArtifactsAreReady artifactsAreReady = new ArtifactsAreReady(workflowRun);
-            Awaitility.await()
-                    .atMost(Duration.ofMinutes(5))
-                    .pollDelay(Duration.ofSeconds(5))
-                    .pollInterval(Duration.ofSeconds(30))
-                    .ignoreExceptions()
-                    .until(artifactsAreReady);
+        Optional<List<GHArtifact>> trackedArtifacts = workflowRunArtifactsTracker.getArtifacts(workflowRun,
+                buildReporterConfig);
+        ArtifactsAreReady artifactsAreReady = new ArtifactsAreReady(workflowRun);
+        if (trackedArtifacts.isPresent()
+                && ArtifactsAreReady.hasBuildReportsArtifacts(trackedArtifacts.get(), workflowRun.getRunAttempt())) {
+            artifacts = trackedArtifacts.get();
+            artifactsAvailable = true;
+        } else if (ARTIFACTS_RETRY_POLICY.await(artifactsAreReady, workflowRunArtifactsTracker.getSleeper(workflowRun))) {
             artifacts = artifactsAreReady.getArtifacts();
             artifactsAvailable = true;
-        } catch (ConditionTimeoutException e) {
+        } else {
             if (workflowRun.getConclusion() != Conclusion.CANCELLED) {
                 LOG.warn("Workflow run " + workflowRun.getRepository().getFullName() + "#"
                         + workflowRun.getName() + ":" + workflowRun.getId()
@@ -117,7 +159,9 @@ public class BuildReporterEventHandler {
             artifactsAvailable = false;
         }
 
-        Path allBuildReportsDirectory = artifactsAvailable ? Files.createTempDirectory("build-reports-analyzer-") : null;
+        workflowRunArtifactsTracker.forget(workflowRun);
+
+        AnalysisResources analysisResources = AnalysisResources.NONE;
 
         try {
             Conclusion conclusion = workflowRun.getConclusion();
@@ -141,9 +185,11 @@ public class BuildReporterEventHandler {
                     return;
                 }
 
+                analysisResources = acquireAnalysisResources(workflowRun, artifacts, artifactsAvailable,
+                        buildReporterConfig);
                 Map<String, Optional<BuildReports>> buildReportsMap = downloadBuildReports(workflowContext,
-                        allBuildReportsDirectory,
-                        artifacts, artifactsAvailable, workflowRun.getRunAttempt());
+                        analysisResources.getBuildReportsDirectory(), artifacts, analysisResources.isAdmitted(),
+                        workflowRun.getRunAttempt(), buildReporterConfig);
                 List<GHWorkflowJob> jobs = workflowRun.listJobs().toList()
                         .stream()
                         .sorted(buildReporterConfig.getJobNameComparator())
@@ -151,9 +197,10 @@ public class BuildReporterEventHandler {
 
                 Optional<WorkflowReport> workflowReportOptional = workflowRunAnalyzer.getReport(workflow.getName(), workflowRun,
                         workflowContext,
-                        buildReporterConfig.getIgnoredFlakyTests(),
+                        buildReporterConfig,
                         jobs,
-                        buildReportsMap);
+                        buildReportsMap,
+                        analysisResources.isAnalysisSkipped());
                 if (workflowReportOptional.isEmpty()) {
                     return;
                 }
@@ -230,9 +277,11 @@ public class BuildReporterEventHandler {
                     LOG.info("Issue #" + reportIssue.getNumber() + " - Reopening report issue");
                 }
 
+                analysisResources = acquireAnalysisResources(workflowRun, artifacts, artifactsAvailable,
+                        buildReporterConfig);
                 Map<String, Optional<BuildReports>> buildReportsMap = downloadBuildReports(workflowContext,
-                        allBuildReportsDirectory,
-                        artifacts, artifactsAvailable, workflowRun.getRunAttempt());
+                        analysisResources.getBuildReportsDirectory(), artifacts, analysisResources.isAdmitted(),
+                        workflowRun.getRunAttempt(), buildReporterConfig);
 
                 List<GHWorkflowJob> jobs = workflowRun.listJobs().toList()
                         .stream()
@@ -241,9 +290,10 @@ public class BuildReporterEventHandler {
 
                 Optional<WorkflowReport> workflowReportOptional = workflowRunAnalyzer.getReport(workflow.getName(), workflowRun,
                         workflowContext,
-                        buildReporterConfig.getIgnoredFlakyTests(),
+                        buildReporterConfig,
                         jobs,
-                        buildReportsMap);
+                        buildReportsMap,
+                        analysisResources.isAnalysisSkipped());
                 if (workflowReportOptional.isEmpty()) {
                     return;
                 }
@@ -277,16 +327,17 @@ public class BuildReporterEventHandler {
                 }
             }
         } finally {
-            if (allBuildReportsDirectory != null) {
-                try {
-                    Files.walk(allBuildReportsDirectory)
-                            .sorted(Comparator.reverseOrder())
-                            .map(Path::toFile)
-                            .forEach(File::delete);
-                } catch (IOException e) {
-                    LOG.error("Unable to delete temp directory " + allBuildReportsDirectory);
-                }
-            }
+            analysisResources.release();
+        }
+    }
+
+    private static void deleteTemporaryDirectory(Path temporaryDirectory) {
+        try (Stream<Path> files = Files.walk(temporaryDirectory)) {
+            files.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        } catch (IOException e) {
+            LOG.error("Unable to delete temp directory " + temporaryDirectory);
         }
     }
 
@@ -343,37 +394,104 @@ public class BuildReporterEventHandler {
         return Optional.empty();
     }
 
+    /**
+     * When the analysis can't be admitted, we generate a report without the build reports.
+     */
+    private AnalysisResources acquireAnalysisResources(GHWorkflowRun workflowRun, List<GHArtifact> artifacts,
+            boolean artifactsAvailable, BuildReporterConfig buildReporterConfig) throws IOException {
+        if (!artifactsAvailable) {
+            return AnalysisResources.NONE;
+        }
+
+        Optional<AnalysisAdmissionController.Reservation> reservation = reserve(workflowRun, artifacts, buildReporterConfig);
+        if (reservation.isEmpty()) {
+            return AnalysisResources.SKIPPED;
+        }
+        if (buildReporterConfig.isInMemoryAnalysis()) {
+            return new AnalysisResources(reservation, Optional.empty());
+        }
+
+        try {
+            return new AnalysisResources(reservation,
+                    Optional.of(Files.createTempDirectory("build-reports-analyzer-")));
+        } catch (IOException | RuntimeException e) {
+            reservation.get().release();
+            throw e;
+        }
+    }
+
+    private Optional<AnalysisAdmissionController.Reservation> reserve(GHWorkflowRun workflowRun, List<GHArtifact> artifacts,
+            BuildReporterConfig buildReporterConfig) {
+        long buildReportsArtifactsSize = WorkflowUtils.getBuildReportsArtifacts(artifacts, workflowRun.getRunAttempt())
+                .values().stream()
+                .distinct()
+                .mapToLong(GHArtifact::getSizeInBytes)
+                .sum();
+
+        return analysisAdmissionController.reserve(
+                "Workflow run " + workflowRun.getRepository().getFullName() + ":" + workflowRun.getId(),
+                buildReportsArtifactsSize, buildReporterConfig);
+    }
+
+    /**
+     * Downloads and extracts the build reports artifacts concurrently, with at most
+     * {@link BuildReporterConfig#getDownloadParallelism()} artifacts being handled at the same time.
+     */
     private Map<String, Optional<BuildReports>> downloadBuildReports(WorkflowContext workflowContext,
             Path allBuildReportsDirectory,
-            List<GHArtifact> artifacts, boolean artifactsAvailable, long runAttempt) throws IOException {
+            List<GHArtifact> artifacts, boolean artifactsAvailable, long runAttempt,
+            BuildReporterConfig buildReporterConfig) throws IOException {
         if (!artifactsAvailable) {
             return Collections.emptyMap();
         }
 
         Map<String, GHArtifact> buildReportsArtifacts = WorkflowUtils.getBuildReportsArtifacts(artifacts, runAttempt);
+        if (buildReportsArtifacts.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-        Map<String, Optional<BuildReports>> buildReportsMap = new HashMap<>();
+        Map<String, Future<Optional<BuildReports>>> buildReportsFutures = new LinkedHashMap<>();
         Set<String> alreadyHandledArtifacts = new HashSet<>();
 
-        for (Entry<String, GHArtifact> artifactEntry : buildReportsArtifacts.entrySet()) {
-            String jobName = artifactEntry.getKey();
-            GHArtifact artifact = artifactEntry.getValue();
+        ExecutorService downloadExecutor = BuildReporterExecutors.newFixedThreadPool(
+                Math.min(buildReporterConfig.getDownloadParallelism(), buildReportsArtifacts.size()), "download");
+        try {
+            for (Entry<String, GHArtifact> artifactEntry : buildReportsArtifacts.entrySet()) {
+                String jobName = artifactEntry.getKey();
+                GHArtifact artifact = artifactEntry.getValue();
 
-            if (alreadyHandledArtifacts.contains(artifact.getName())) {
-                continue;
-            }
+                if (alreadyHandledArtifacts.contains(artifact.getName())) {
+                    continue;
+                }
 
-            Path jobDirectory = allBuildReportsDirectory.resolve(artifact.getName());
+                Path jobDirectory = allBuildReportsDirectory.resolve(artifact.getName());
 
-            Optional<BuildReports> buildReportsOptional = buildReportsUnarchiver.getBuildReports(workflowContext,
-                    artifact, jobDirectory);
+                buildReportsFutures.put(jobName, downloadExecutor.submit(
+                        () -> buildReportsUnarchiver.getBuildReports(workflowContext, buildReporterConfig, artifact,
+                                jobDirectory)));
 
-            buildReportsMap.put(jobName, buildReportsOptional);
+                alreadyHandledArtifacts.add(artifact.getName());
+            }
 
-            alreadyHandledArtifacts.add(artifact.getName());
-        }
+            Map<String, Optional<BuildReports>> buildReportsMap = new HashMap<>();
+            for (Entry<String, Future<Optional<BuildReports>>> buildReportsFutureEntry : buildReportsFutures.entrySet()) {
+                String jobName = buildReportsFutureEntry.getKey();
+                try {
+                    buildReportsMap.put(jobName, buildReportsFutureEntry.getValue().get());
+                } catch (ExecutionException e) {
+                    LOG.error(workflowContext.getLogContext() + " - Unable to download build reports for job " + jobName,
+                            e.getCause());
+                    buildReportsMap.put(jobName, Optional.empty());
+                }
+            }
 
-        return buildReportsMap;
+            return buildReportsMap;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading the build reports", e);
+        } finally {
+            downloadExecutor.shutdownNow();
+        }
     }
 
     private void handleRequested(GHWorkflow workflow, GHWorkflowRun workflowRun,
@@ -462,9 +580,53 @@ public class BuildReporterEventHandler {
                 """, variables);
     }
 
+    /**
+     * The resources reserved to analyze the build reports, they are released once the report is generated.
+     */
+    private static class AnalysisResources {
+
+        private static final AnalysisResources NONE = new AnalysisResources(Optional.empty(), Optional.empty());
+        private static final AnalysisResources SKIPPED = new AnalysisResources(Optional.empty(), Optional.empty(), true);
+
+        private final Optional<AnalysisAdmissionController.Reservation> reservation;
+        private final Optional<Path> temporaryDirectory;
+        private final boolean analysisSkipped;
+
+        private AnalysisResources(Optional<AnalysisAdmissionController.Reservation> reservation,
+                Optional<Path> temporaryDirectory) {
+            this(reservation, temporaryDirectory, false);
+        }
+
+        private AnalysisResources(Optional<AnalysisAdmissionController.Reservation> reservation,
+                Optional<Path> temporaryDirectory, boolean analysisSkipped) {
+            this.reservation = reservation;
+            this.temporaryDirectory = temporaryDirectory;
+            this.analysisSkipped = analysisSkipped;
+        }
+
+        private boolean isAdmitted() {
+            return reservation.isPresent();
+        }
+
+        private boolean isAnalysisSkipped() {
+            return analysisSkipped;
+        }
+
+        private Path getBuildReportsDirectory() {
+            return temporaryDirectory.orElse(IN_MEMORY_BUILD_REPORTS_DIRECTORY);
+        }
+
+        private void release() {
+            reservation.ifPresent(AnalysisAdmissionController.Reservation::release);
+
+            // we only ever delete the temporary directory we created
+            temporaryDirectory.ifPresent(BuildReporterEventHandler::deleteTemporaryDirectory);
+        }
+    }
+
     private final static class ArtifactsAreReady implements Callable<Boolean> {
         private final GHWorkflowRun workflowRun;
-        private List<GHArtifact> artifacts;
+        private volatile List<GHArtifact> artifacts;
 
         private ArtifactsAreReady(GHWorkflowRun workflowRun) {
             this.workflowRun = workflowRun;
@@ -472,13 +634,18 @@ public class BuildReporterEventHandler {
 
         @Override
         public Boolean call() throws Exception {
-            artifacts = workflowRun.listArtifacts().toList();
+            List<GHArtifact> artifacts = workflowRun.listArtifacts().toList();
+            this.artifacts = artifacts;
+
+            return hasBuildReportsArtifacts(artifacts, workflowRun.getRunAttempt());
+        }
 
+        private static boolean hasBuildReportsArtifacts(List<GHArtifact> artifacts, long runAttempt) {
             boolean useNewBuildReportsArtifactNamePattern = artifacts.stream()
                     .anyMatch(a -> WorkflowUtils.matchesNewBuildReportsArtifactNamePattern(a.getName()));
 
             String buildReportsArtifactNamePrefix = useNewBuildReportsArtifactNamePattern
-                    ? WorkflowConstants.BUILD_REPORTS_ARTIFACT_PREFIX + workflowRun.getRunAttempt() + "-"
+                    ? WorkflowConstants.BUILD_REPORTS_ARTIFACT_PREFIX + runAttempt + "-"
                     : WorkflowConstants.BUILD_REPORTS_ARTIFACT_PREFIX;
 
             return artifacts.stream().anyMatch(a -> a.getName().startsWith(buildReportsArtifactNamePrefix));
@@ -0,0 +1,137 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHWorkflowRun;
+import org.kohsuke.github.GitHub;
+
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
+
+/**
+ * Processes the {@code workflow_run} events asynchronously so that the event is acknowledged right away.
+ * <p>
+ * The events are handled by a bounded pool of threads fed by a bounded queue.
+ * An event for a workflow run that is already queued or being processed is ignored.
+ * <p>
+ * {@link BuildReporterEventHandler#handle(GHEventPayload.WorkflowRun, BuildReporterConfig, GitHub, DynamicGraphQLClient)}
+ * is still synchronous, the events are only processed asynchronously when submitted to this queue.
+ */
+@Singleton
+public class BuildReporterEventQueue {
+
+    private static final Logger LOG = Logger.getLogger(BuildReporterEventQueue.class);
+
+    @Inject
+    BuildReporterEventHandler buildReporterEventHandler;
+
+    private final Set<String> pendingWorkflowRuns = ConcurrentHashMap.newKeySet();
+
+    private volatile ThreadPoolExecutor executor;
+    private int executorCapacity;
+    private boolean sizingMismatchLogged;
+
+    /**
+     * The executor is shared by all the configurations so it is created with the sizing of the first configuration
+     * submitted, a configuration with a different sizing is logged once and handled with the sizing in use.
+     */
+    private synchronized ThreadPoolExecutor getExecutor(BuildReporterConfig buildReporterConfig) {
+        if (executor != null) {
+            if (!sizingMismatchLogged
+                    && (buildReporterConfig.getEventQueueMaxConcurrency() != executor.getMaximumPoolSize()
+                            || buildReporterConfig.getEventQueueCapacity() != executorCapacity)) {
+                sizingMismatchLogged = true;
+                LOG.warn("The event queue is already sized for " + executor.getMaximumPoolSize()
+                        + " concurrent events and a capacity of " + executorCapacity
+                        + ", ignoring the concurrency of " + buildReporterConfig.getEventQueueMaxConcurrency()
+                        + " and the capacity of " + buildReporterConfig.getEventQueueCapacity()
+                        + " of the submitted configuration");
+            }
+        } else {
+            int maxConcurrency = buildReporterConfig.getEventQueueMaxConcurrency();
+            executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 1, TimeUnit.MINUTES,
+                    new ArrayBlockingQueue<>(buildReporterConfig.getEventQueueCapacity()),
+                    BuildReporterExecutors.threadFactory("event"));
+            executor.allowCoreThreadTimeOut(true);
+            executorCapacity = buildReporterConfig.getEventQueueCapacity();
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if the event has been accepted, false if it was a duplicate or if it has been rejected
+     */
+    public boolean submit(GHEventPayload.WorkflowRun workflowRunPayload,
+            BuildReporterConfig buildReporterConfig,
+            GitHub gitHub, DynamicGraphQLClient gitHubGraphQLClient) {
+        GHWorkflowRun workflowRun = workflowRunPayload.getWorkflowRun();
+        String workflowRunKey = workflowRun.getRepository().getFullName() + "#" + workflowRun.getId() + ":"
+                + workflowRun.getRunAttempt() + ":" + workflowRunPayload.getAction();
+
+        if (!pendingWorkflowRuns.add(workflowRunKey)) {
+            LOG.info("Workflow run " + workflowRunKey + " - Already queued, ignoring the event");
+            return false;
+        }
+
+        Runnable task = () -> {
+            try {
+                buildReporterEventHandler.handle(workflowRunPayload, buildReporterConfig, gitHub, gitHubGraphQLClient);
+            } catch (Exception e) {
+                LOG.error("Workflow run " + workflowRunKey + " - Unable to handle the event", e);
+            } finally {
+                pendingWorkflowRuns.remove(workflowRunKey);
+            }
+        };
+
+        ThreadPoolExecutor executor = getExecutor(buildReporterConfig);
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (buildReporterConfig.getEventQueueOverflowPolicy() == OverflowPolicy.CALLER_RUNS) {
+                LOG.warn("Workflow run " + workflowRunKey + " - Queue is full, handling the event synchronously");
+                task.run();
+                return true;
+            }
+
+            pendingWorkflowRuns.remove(workflowRunKey);
+            LOG.error("Workflow run " + workflowRunKey + " - Queue is full (" + executor.getQueue().size()
+                    + " pending events), rejecting the event");
+            return false;
+        }
+    }
+
+    public int getQueueDepth() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    public enum OverflowPolicy {
+
+        /**
+         * The event is dropped.
+         */
+        REJECT,
+        /**
+         * The event is handled synchronously by the calling thread.
+         */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,40 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the thread pools of the build reporter.
+ * <p>
+ * The threads are daemon threads so that they never prevent the application from stopping, and they are named after
+ * their pool ({@code build-reporter-<name>-<n>}) so that they are easy to spot in a thread dump.
+ */
+final class BuildReporterExecutors {
+
+    private BuildReporterExecutors() {
+    }
+
+    static ExecutorService newFixedThreadPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, threadFactory(name));
+    }
+
+    static ExecutorService newCachedThreadPool(String name) {
+        return Executors.newCachedThreadPool(threadFactory(name));
+    }
+
+    static ScheduledExecutorService newScheduledThreadPool(int threads, String name) {
+        return Executors.newScheduledThreadPool(threads, threadFactory(name));
+    }
+
+    static ThreadFactory threadFactory(String name) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "build-reporter-" + name + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -10,19 +11,34 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.logging.Logger;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestResultsXmlParser;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestSuiteResult;
 
 class BuildReports {
 
+    private static final Logger LOG = Logger.getLogger(BuildReports.class);
+
     private final Path jobDirectory;
     private final List<Path> buildReportPaths;
+    private final List<BuildReport> buildReports;
     private final Path gradleBuildScanUrlPath;
+    private final String gradleBuildScanUrl;
     private final Set<TestResultsPath> testResultsPaths;
 
-    private BuildReports(Path jobDirectory, List<Path> buildReportPaths, Path gradleBuildScanUrlPath,
-            Set<TestResultsPath> testResultsPaths) {
+    private BuildReports(Path jobDirectory, List<Path> buildReportPaths, List<BuildReport> buildReports,
+            Path gradleBuildScanUrlPath, String gradleBuildScanUrl, Set<TestResultsPath> testResultsPaths) {
         this.jobDirectory = jobDirectory;
         this.buildReportPaths = buildReportPaths;
+        this.buildReports = buildReports;
         this.gradleBuildScanUrlPath = gradleBuildScanUrlPath;
+        this.gradleBuildScanUrl = gradleBuildScanUrl;
         this.testResultsPaths = Collections.unmodifiableSet(testResultsPaths);
     }
 
@@ -34,10 +50,24 @@ class BuildReports {
         return buildReportPaths;
     }
 
+    /**
+     * Build reports parsed while streaming the artifact, when the reports are analyzed in memory.
+     */
+    public List<BuildReport> getBuildReports() {
+        return buildReports;
+    }
+
     public Path getGradleBuildScanUrlPath() {
         return gradleBuildScanUrlPath;
     }
 
+    /**
+     * Gradle Build Scan URL read while streaming the artifact, when the reports are analyzed in memory.
+     */
+    public String getGradleBuildScanUrl() {
+        return gradleBuildScanUrl;
+    }
+
     public Set<TestResultsPath> getTestResultsPaths() {
         return testResultsPaths;
     }
@@ -47,6 +77,54 @@ class BuildReports {
         Path getPath();
 
         String getModuleName(Path jobDirectory);
+
+        default List<TestSuiteResult> getTestSuiteResults(StringPool stringPool) throws IOException {
+            return parseTestResultsDirectory(getPath(), stringPool);
+        }
+    }
+
+    /**
+     * The module name is computed from the path of the test results directory, relative to the job directory,
+     * by removing the given number of trailing elements.
+     * <p>
+     * The test results directories are normalized by the builder, the job directory has to be normalized the same way.
+     */
+    private static String toModuleName(Path jobDirectory, Path testResultsDirectory, int depth) {
+        Path modulePath = Builder.normalize(jobDirectory).relativize(testResultsDirectory);
+        for (int i = 0; i < depth && modulePath != null; i++) {
+            modulePath = modulePath.getParent();
+        }
+        if (modulePath == null) {
+            return null;
+        }
+
+        return modulePath.toString();
+    }
+
+    /**
+     * Parses all the test results files of the directory, a file we can't parse is ignored.
+     */
+    private static List<TestSuiteResult> parseTestResultsDirectory(Path directory, StringPool stringPool)
+            throws IOException {
+        List<Path> testResultsFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            testResultsFiles = files
+                    .filter(f -> Builder.isTestResultsFileName(f.getFileName().toString()))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        List<TestSuiteResult> testSuiteResults = new ArrayList<>();
+        for (Path testResultsFile : testResultsFiles) {
+            try {
+                testSuiteResults.addAll(TestResultsXmlParser.parse(testResultsFile, stringPool));
+            } catch (Exception e) {
+                LOG.error("Unable to parse test results file " + testResultsFile, e);
+            }
+        }
+
+        return testSuiteResults;
     }
 
     @Override
@@ -54,7 +132,9 @@ class BuildReports {
         return "BuildReports[\n"
                 + "    jobDirectory=" + jobDirectory + "\n"
                 + "    buildReportPaths=" + buildReportPaths + "\n"
+                + "    buildReports=" + buildReports.size() + "\n"
                 + "    gradleBuildScanUrlPath=" + gradleBuildScanUrlPath + "\n"
+                + "    gradleBuildScanUrl=" + gradleBuildScanUrl + "\n"
                 + "    testResultsPaths=" + testResultsPaths + "\n"
                 + "]";
     }
@@ -65,19 +145,35 @@ class BuildReports {
         private static final String FAILSAFE_REPORTS = "failsafe-reports";
         private static final String SUREFIRE_REPORTS = "surefire-reports";
         private static final Path GRADLE_REPORTS_PATH = Path.of("build", "test-results", "test");
+        private static final String XML_EXTENSION = ".xml";
+        private static final Set<String> EXCLUDED_TEST_RESULTS_FILES = Set.of("testng-failed.xml", "testng-failures.xml",
+                "testng-results.xml", "failsafe-summary.xml");
 
         private final Path jobDirectory;
         private final List<Path> buildReportPaths = new ArrayList<>();
+        private final List<BuildReport> buildReports = new ArrayList<>();
         private Path gradleBuildScanUrlPath;
+        private String gradleBuildScanUrl;
         private final Set<TestResultsPath> testResultsPaths = new TreeSet<>();
 
         private final Map<Path, Boolean> alreadyTreatedPaths = new HashMap<>();
+        private final Map<Path, InMemoryTestResultsPath> inMemoryTestResultsPaths = new HashMap<>();
 
+        /**
+         * The module names are resolved by relativizing the paths against the job directory,
+         * so the job directory and the paths are normalized the same way.
+         */
         Builder(Path jobDirectory) {
-            this.jobDirectory = jobDirectory;
+            this.jobDirectory = normalize(jobDirectory);
+        }
+
+        private static Path normalize(Path path) {
+            return path.toAbsolutePath().normalize();
         }
 
         void addPath(Path path) {
+            path = normalize(path);
+
             if (path.endsWith(WorkflowConstants.BUILD_REPORT_PATH)) {
                 buildReportPaths.add(path);
                 return;
@@ -102,6 +198,53 @@ class BuildReports {
             addTestPath(path.getParent());
         }
 
+        void addBuildReport(BuildReport buildReport) {
+            buildReports.add(buildReport);
+        }
+
+        void gradleBuildScanUrl(String gradleBuildScanUrl) {
+            this.gradleBuildScanUrl = gradleBuildScanUrl;
+        }
+
+        /**
+         * Whether the given file might be of interest for the report.
+         * <p>
+         * The decision is only based on the path so that we can avoid extracting the files we won't use.
+         */
+        static boolean isRelevant(Path path) {
+            return path.endsWith(WorkflowConstants.BUILD_REPORT_PATH)
+                    || path.endsWith(WorkflowConstants.GRADLE_BUILD_SCAN_URL_PATH)
+                    || isTestResultsFile(path);
+        }
+
+        /**
+         * Whether the given file is a test results file we are interested in.
+         * <p>
+         * The decision is only based on the path as the file might not be on disk.
+         */
+        static boolean isTestResultsFile(Path path) {
+            if (!isTestResultsFileName(path.getFileName().toString())) {
+                return false;
+            }
+
+            return toTestResultsPath(path.getParent()) != null;
+        }
+
+        private static boolean isTestResultsFileName(String fileName) {
+            return fileName.endsWith(XML_EXTENSION) && !EXCLUDED_TEST_RESULTS_FILES.contains(fileName);
+        }
+
+        /**
+         * Adds test suites that have been parsed while streaming the artifact.
+         */
+        void addTestResults(Path path, List<TestSuiteResult> testSuiteResults) {
+            path = normalize(path);
+            InMemoryTestResultsPath inMemoryTestResultsPath = inMemoryTestResultsPaths.computeIfAbsent(path.getParent(),
+                    p -> new InMemoryTestResultsPath(toTestResultsPath(p)));
+            inMemoryTestResultsPath.addTestSuiteResults(testSuiteResults);
+            testResultsPaths.add(inMemoryTestResultsPath);
+        }
+
         private boolean addTestPath(Path path) {
             return alreadyTreatedPaths.computeIfAbsent(path, p -> doAddTestPath(p));
         }
@@ -111,39 +254,53 @@ class BuildReports {
                 return true;
             }
 
-            if (!Files.isDirectory(path) || path.getNameCount() < 2) {
+            if (!Files.isDirectory(path)) {
+                return false;
+            }
+
+            TestResultsPath testResultsPath = toTestResultsPath(path);
+            if (testResultsPath == null) {
                 return false;
             }
 
+            testResultsPaths.add(testResultsPath);
+            return true;
+        }
+
+        private static TestResultsPath toTestResultsPath(Path path) {
+            if (path == null || path.getNameCount() < 2) {
+                return null;
+            }
+
             if (path.getFileName().toString().startsWith(SUREFIRE_REPORTS)) {
                 if (path.getName(path.getNameCount() - 2).toString().equals(TARGET)) {
-                    testResultsPaths.add(new SurefireTestResultsPath(path));
-                    return true;
+                    return new SurefireTestResultsPath(path);
                 }
             }
             if (path.getFileName().toString().startsWith(FAILSAFE_REPORTS)) {
                 if (path.getName(path.getNameCount() - 2).toString().equals(TARGET)) {
-                    testResultsPaths.add(new FailsafeTestResultsPath(path));
-                    return true;
+                    return new FailsafeTestResultsPath(path);
                 }
             }
 
             if (path.endsWith(GRADLE_REPORTS_PATH)) {
-                testResultsPaths.add(new GradleTestResultsPath(path));
-                return true;
+                return new GradleTestResultsPath(path);
             }
 
-            return false;
+            return null;
         }
 
         BuildReports build() {
-            return new BuildReports(jobDirectory, buildReportPaths, gradleBuildScanUrlPath, testResultsPaths);
+            return new BuildReports(jobDirectory, buildReportPaths, buildReports, gradleBuildScanUrlPath, gradleBuildScanUrl,
+                    testResultsPaths);
         }
     }
 
     private static class SurefireTestResultsPath implements TestResultsPath {
 
         private final Path path;
+        private Path moduleNameJobDirectory;
+        private String moduleName;
 
         SurefireTestResultsPath(Path path) {
             this.path = path;
@@ -155,13 +312,12 @@ class BuildReports {
         }
 
         @Override
-        public String getModuleName(Path jobDirectory) {
-            Path modulePath = jobDirectory.relativize(path).getParent().getParent();
-            if (modulePath == null) {
-                return null;
+        public synchronized String getModuleName(Path jobDirectory) {
+            if (!jobDirectory.equals(moduleNameJobDirectory)) {
+                moduleName = toModuleName(jobDirectory, path, 2);
+                moduleNameJobDirectory = jobDirectory;
             }
-
-            return modulePath.toString();
+            return moduleName;
         }
 
         @Override
@@ -198,6 +354,8 @@ class BuildReports {
     static class FailsafeTestResultsPath implements TestResultsPath {
 
         private final Path path;
+        private Path moduleNameJobDirectory;
+        private String moduleName;
 
         FailsafeTestResultsPath(Path path) {
             this.path = path;
@@ -209,13 +367,12 @@ class BuildReports {
         }
 
         @Override
-        public String getModuleName(Path jobDirectory) {
-            Path modulePath = jobDirectory.relativize(path).getParent().getParent();
-            if (modulePath == null) {
-                return null;
+        public synchronized String getModuleName(Path jobDirectory) {
+            if (!jobDirectory.equals(moduleNameJobDirectory)) {
+                moduleName = toModuleName(jobDirectory, path, 2);
+                moduleNameJobDirectory = jobDirectory;
             }
-
-            return modulePath.toString();
+            return moduleName;
         }
 
         @Override
@@ -252,6 +409,8 @@ class BuildReports {
     static class GradleTestResultsPath implements TestResultsPath {
 
         private final Path path;
+        private Path moduleNameJobDirectory;
+        private String moduleName;
 
         GradleTestResultsPath(Path path) {
             this.path = path;
@@ -263,13 +422,12 @@ class BuildReports {
         }
 
         @Override
-        public String getModuleName(Path jobDirectory) {
-            Path modulePath = jobDirectory.relativize(path).getParent().getParent().getParent();
-            if (modulePath == null) {
-                return null;
+        public synchronized String getModuleName(Path jobDirectory) {
+            if (!jobDirectory.equals(moduleNameJobDirectory)) {
+                moduleName = toModuleName(jobDirectory, path, 3);
+                moduleNameJobDirectory = jobDirectory;
             }
-
-            return modulePath.toString();
+            return moduleName;
         }
 
         @Override
@@ -302,4 +460,67 @@ class BuildReports {
             return Objects.equals(path, other.path);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test results parsed while streaming the artifact: the files are never written to disk.
+     */
+    static class InMemoryTestResultsPath implements TestResultsPath {
+
+        private final TestResultsPath testResultsPath;
+        private final List<TestSuiteResult> testSuiteResults = new ArrayList<>();
+
+        InMemoryTestResultsPath(TestResultsPath testResultsPath) {
+            this.testResultsPath = testResultsPath;
+        }
+
+        @Override
+        public Path getPath() {
+            return testResultsPath.getPath();
+        }
+
+        @Override
+        public String getModuleName(Path jobDirectory) {
+            return testResultsPath.getModuleName(jobDirectory);
+        }
+
+        @Override
+        public List<TestSuiteResult> getTestSuiteResults(StringPool stringPool) {
+            // the test results have been parsed while streaming the artifact
+            return testSuiteResults;
+        }
+
+        private void addTestSuiteResults(List<TestSuiteResult> testSuiteResults) {
+            this.testSuiteResults.addAll(testSuiteResults);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getName() + "[" + testResultsPath + "]";
+        }
+
+        @Override
+        public int compareTo(TestResultsPath o) {
+            return getPath().compareTo(o.getPath());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(testResultsPath);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            InMemoryTestResultsPath other = (InMemoryTestResultsPath) obj;
+            return Objects.equals(testResultsPath, other.testResultsPath);
+        }
+    }
+}
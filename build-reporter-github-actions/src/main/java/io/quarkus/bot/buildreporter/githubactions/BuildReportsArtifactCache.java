@@ -0,0 +1,198 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHArtifact;
+import org.kohsuke.github.function.InputStreamFunction;
+
+/**
+ * Keeps the downloaded build reports artifacts on disk so that analyzing the same workflow run again
+ * (redelivered events, re-runs...) doesn't download them again.
+ * <p>
+ * Artifacts are immutable so they are keyed by their id and size.
+ * A cached artifact that turns out to be corrupted is invalidated so that it is downloaded again the next time.
+ * The cache is populated atomically: the artifact is downloaded to a temporary file which is then moved in place.
+ * When the cache grows over its budget, the least recently used artifacts are evicted.
+ */
+@ApplicationScoped
+class BuildReportsArtifactCache {
+
+    private static final Logger LOG = Logger.getLogger(BuildReportsArtifactCache.class);
+
+    private static final String CACHED_ARTIFACT_SUFFIX = ".zip";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final Duration STALE_TEMPORARY_FILE_DELAY = Duration.ofHours(1);
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * @param abortableStreams the streams opened for the download are registered there so that the download can be aborted
+     */
+    public <T> T download(GHArtifact artifact, Path cacheDirectory, long maxSize, AbortableStreams abortableStreams,
+            InputStreamFunction<T> function) throws IOException {
+        InputStreamFunction<T> abortableFunction = is -> function.apply(abortableStreams.register(is));
+
+        if (artifact.getSizeInBytes() > maxSize) {
+            return artifact.download(abortableFunction);
+        }
+
+        Path cachedArtifact = cacheDirectory.resolve(getKey(artifact) + CACHED_ARTIFACT_SUFFIX);
+
+        if (Files.isRegularFile(cachedArtifact)) {
+            LOG.debug("Artifact " + artifact.getName() + " found in cache " + cachedArtifact);
+            try {
+                Files.setLastModifiedTime(cachedArtifact, FileTime.from(Instant.now()));
+            } catch (NoSuchFileException e) {
+                // it has been evicted in the meantime
+                return artifact.download(abortableFunction);
+            }
+        } else {
+            populate(artifact, cacheDirectory, cachedArtifact, abortableStreams);
+            evict(cacheDirectory, maxSize, cachedArtifact);
+        }
+
+        try (InputStream is = Files.newInputStream(cachedArtifact)) {
+            return abortableFunction.apply(is);
+        } catch (NoSuchFileException e) {
+            return artifact.download(abortableFunction);
+        } catch (IOException | RuntimeException e) {
+            // we don't want all the subsequent analyses to fail the same way but an aborted or rejected analysis
+            // doesn't tell anything about the cached artifact
+            if (isCorrupted(e)) {
+                invalidate(cachedArtifact);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Downloads the artifact to the cache if it is not already there.
+     */
+    public void prefetch(GHArtifact artifact, Path cacheDirectory, long maxSize) throws IOException {
+        if (artifact.getSizeInBytes() > maxSize) {
+            return;
+        }
+
+        Path cachedArtifact = cacheDirectory.resolve(getKey(artifact) + CACHED_ARTIFACT_SUFFIX);
+        if (Files.isRegularFile(cachedArtifact)) {
+            return;
+        }
+
+        populate(artifact, cacheDirectory, cachedArtifact, new AbortableStreams());
+        evict(cacheDirectory, maxSize, cachedArtifact);
+    }
+
+    private static void populate(GHArtifact artifact, Path cacheDirectory, Path cachedArtifact,
+            AbortableStreams abortableStreams) throws IOException {
+        Files.createDirectories(cacheDirectory);
+
+        Path temporaryFile = Files.createTempFile(cacheDirectory, getKey(artifact) + "-", TEMPORARY_FILE_SUFFIX);
+        try {
+            artifact.download(
+                    is -> Files.copy(abortableStreams.register(is), temporaryFile, StandardCopyOption.REPLACE_EXISTING));
+            Files.move(temporaryFile, cachedArtifact, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static boolean isCorrupted(Exception e) {
+        return RetryPolicy.hasCause(e, ZipException.class) || RetryPolicy.hasCause(e, EOFException.class);
+    }
+
+    private static void invalidate(Path cachedArtifact) {
+        try {
+            Files.deleteIfExists(cachedArtifact);
+            LOG.debug("Invalidated artifact " + cachedArtifact + " in cache");
+        } catch (IOException e) {
+            LOG.warn("Unable to invalidate artifact " + cachedArtifact + " in cache", e);
+        }
+    }
+
+    private void evict(Path cacheDirectory, long maxSize, Path keptArtifact) {
+        synchronized (evictionLock) {
+            List<CachedArtifact> cachedArtifacts = new ArrayList<>();
+            Instant staleTemporaryFileLimit = Instant.now().minus(STALE_TEMPORARY_FILE_DELAY);
+
+            try (Stream<Path> files = Files.list(cacheDirectory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    try {
+                        FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+                        String fileName = file.getFileName().toString();
+
+                        if (fileName.endsWith(CACHED_ARTIFACT_SUFFIX)) {
+                            cachedArtifacts.add(new CachedArtifact(file, Files.size(file), lastModifiedTime));
+                        } else if (fileName.endsWith(TEMPORARY_FILE_SUFFIX)
+                                && lastModifiedTime.toInstant().isBefore(staleTemporaryFileLimit)) {
+                            // leftover of a download that crashed
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (NoSuchFileException e) {
+                        // deleted in the meantime
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable to evict artifacts from cache " + cacheDirectory, e);
+                return;
+            }
+
+            long size = cachedArtifacts.stream().mapToLong(ca -> ca.size).sum();
+            if (size <= maxSize) {
+                return;
+            }
+
+            cachedArtifacts.sort(Comparator.comparing(ca -> ca.lastModifiedTime));
+            for (CachedArtifact cachedArtifact : cachedArtifacts) {
+                if (size <= maxSize) {
+                    break;
+                }
+                if (cachedArtifact.path.equals(keptArtifact)) {
+                    continue;
+                }
+
+                try {
+                    Files.deleteIfExists(cachedArtifact.path);
+                    size -= cachedArtifact.size;
+                    LOG.debug("Evicted artifact " + cachedArtifact.path + " from cache");
+                } catch (IOException e) {
+                    LOG.warn("Unable to evict artifact " + cachedArtifact.path + " from cache", e);
+                }
+            }
+        }
+    }
+
+    private static String getKey(GHArtifact artifact) {
+        return artifact.getId() + "-" + artifact.getSizeInBytes();
+    }
+
+    private static class CachedArtifact {
+
+        private final Path path;
+        private final long size;
+        private final FileTime lastModifiedTime;
+
+        private CachedArtifact(Path path, long size, FileTime lastModifiedTime) {
+            this.path = path;
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Extracts the relevant entries of the build reports archives.
+ * <p>
+ * Both the artifacts streamed from GitHub and the archives available on the local disk go through this class
+ * so that they get the same protections against malicious archives:
+ * the number of entries, the total inflated size and the compression ratio are capped.
+ * <p>
+ * Entries that are not relevant for the build reports are not extracted but, when streaming,
+ * they are inflated anyway to get to the next entry so they count towards the limits.
+ */
+@ApplicationScoped
+class BuildReportsExtractor {
+
+    private static final Logger LOG = Logger.getLogger(BuildReportsExtractor.class);
+
+    static final String NESTED_ZIP_FILE_NAME = "build-reports.zip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Small archives can have a very high compression ratio so we only check the ratio above this size.
+     */
+    private static final long COMPRESSION_RATIO_THRESHOLD = 10L * 1024 * 1024;
+
+    private final AtomicLong totalBytesIn = new AtomicLong();
+    private final AtomicLong totalBytesOut = new AtomicLong();
+    private final AtomicLong totalEntries = new AtomicLong();
+
+    /**
+     * Extracts the relevant entries of an archive we can only read sequentially.
+     */
+    BuildReports extract(InputStream inputStream, Path jobDirectory, BuildReporterConfig buildReporterConfig)
+            throws IOException {
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        process(inputStream, jobDirectory, buildReporterConfig, (entryPath, entryInputStream) -> {
+            write(entryInputStream, entryPath, buffer);
+            buildReportsBuilder.addPath(entryPath);
+        });
+
+        return buildReportsBuilder.build();
+    }
+
+    /**
+     * Extracts the relevant entries of an archive available on the local disk, using its central directory
+     * to only read the relevant entries.
+     */
+    BuildReports extract(Path archive, Path jobDirectory, BuildReporterConfig buildReporterConfig) throws IOException {
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        process(archive, jobDirectory, buildReporterConfig, (entryPath, entryInputStream) -> {
+            write(entryInputStream, entryPath, buffer);
+            buildReportsBuilder.addPath(entryPath);
+        });
+
+        return buildReportsBuilder.build();
+    }
+
+    /**
+     * Passes the relevant entries of an archive we can only read sequentially to the handler.
+     * <p>
+     * The entry input stream must not be kept after the handler returns.
+     */
+    void process(InputStream inputStream, Path jobDirectory, BuildReporterConfig buildReporterConfig,
+            EntryHandler entryHandler) throws IOException {
+        Extraction extraction = new Extraction(buildReporterConfig);
+
+        try {
+            processStream(new CompressedInputStream(inputStream, extraction), jobDirectory, extraction, entryHandler,
+                    true);
+        } finally {
+            record(jobDirectory, extraction);
+        }
+    }
+
+    /**
+     * Passes the relevant entries of an archive available on the local disk to the handler.
+     * <p>
+     * The entry input stream must not be kept after the handler returns.
+     */
+    void process(Path archive, Path jobDirectory, BuildReporterConfig buildReporterConfig,
+            EntryHandler entryHandler) throws IOException {
+        Extraction extraction = new Extraction(buildReporterConfig);
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            ZipEntry nestedZipEntry = zipFile.getEntry(NESTED_ZIP_FILE_NAME);
+            if (nestedZipEntry != null) {
+                extraction.compressed(nestedZipEntry.getCompressedSize());
+                try (InputStream nestedZipInputStream = zipFile.getInputStream(nestedZipEntry)) {
+                    processStream(nestedZipInputStream, jobDirectory, extraction, entryHandler, false);
+                }
+                return;
+            }
+
+            if (zipFile.size() > extraction.maxEntries) {
+                throw new LimitExceededException("Archive " + archive + " has " + zipFile.size()
+                        + " entries, the limit is " + extraction.maxEntries);
+            }
+
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                extraction.entry();
+
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
+
+                Path entryPath = getZipEntryPath(jobDirectory, zipEntry);
+                if (!BuildReports.Builder.isRelevant(entryPath)) {
+                    continue;
+                }
+
+                extraction.compressed(zipEntry.getCompressedSize());
+                try (InputStream entryInputStream = zipFile.getInputStream(zipEntry)) {
+                    entryHandler.handle(entryPath, new InflatedInputStream(entryInputStream, extraction));
+                }
+                extraction.extractedEntries++;
+            }
+        } finally {
+            record(jobDirectory, extraction);
+        }
+    }
+
+    long getTotalBytesIn() {
+        return totalBytesIn.get();
+    }
+
+    long getTotalBytesOut() {
+        return totalBytesOut.get();
+    }
+
+    long getTotalEntries() {
+        return totalEntries.get();
+    }
+
+    private static void processStream(InputStream inputStream, Path jobDirectory, Extraction extraction,
+            EntryHandler entryHandler, boolean allowNestedZip) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(inputStream)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zis.getNextEntry()) != null) {
+                if (allowNestedZip && NESTED_ZIP_FILE_NAME.equals(zipEntry.getName())) {
+                    processStream(zis, jobDirectory, extraction, entryHandler, false);
+                    return;
+                }
+
+                extraction.entry();
+
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
+
+                Path entryPath = getZipEntryPath(jobDirectory, zipEntry);
+                InputStream entryInputStream = new InflatedInputStream(zis, extraction);
+
+                if (BuildReports.Builder.isRelevant(entryPath)) {
+                    entryHandler.handle(entryPath, entryInputStream);
+                    extraction.extractedEntries++;
+                }
+
+                // we read what's left of the entry ourselves so that the inflated bytes are accounted for
+                entryInputStream.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+    }
+
+    private static void write(InputStream inputStream, Path path, byte[] buffer) throws IOException {
+        // directories are created when extracting the files so that we don't create empty ones
+        Files.createDirectories(path.getParent());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+            }
+        }
+    }
+
+    private void record(Path jobDirectory, Extraction extraction) {
+        totalBytesIn.addAndGet(extraction.bytesIn);
+        totalBytesOut.addAndGet(extraction.bytesOut);
+        totalEntries.addAndGet(extraction.entries);
+
+        LOG.debug("Processed build reports archive for " + jobDirectory.getFileName() + ": " + extraction.extractedEntries
+                + "/" + extraction.entries + " entries extracted, " + extraction.bytesIn + " bytes in, "
+                + extraction.bytesOut + " bytes out");
+    }
+
+    static Path getZipEntryPath(Path destinationDirectory, ZipEntry zipEntry) throws IOException {
+        String entryName = zipEntry.getName();
+
+        // we reject the suspicious names before resolving them, the normalized check below is a second line of defense
+        if (entryName.startsWith("/") || entryName.startsWith("\\") || isAbsolute(entryName)) {
+            throw new IOException("Entry has an absolute path: " + entryName);
+        }
+        for (String segment : entryName.split("[/\\\\]")) {
+            if ("..".equals(segment)) {
+                throw new IOException("Entry is outside of the target dir: " + entryName);
+            }
+        }
+
+        Path normalizedDestinationDirectory = destinationDirectory.toAbsolutePath().normalize();
+        Path destinationFile = normalizedDestinationDirectory.resolve(entryName).normalize();
+
+        if (!destinationFile.startsWith(normalizedDestinationDirectory)) {
+            throw new IOException("Entry is outside of the target dir: " + entryName);
+        }
+
+        return destinationFile;
+    }
+
+    private static boolean isAbsolute(String entryName) throws IOException {
+        try {
+            return Path.of(entryName).isAbsolute();
+        } catch (InvalidPathException e) {
+            throw new IOException("Entry has an invalid path: " + entryName, e);
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryHandler {
+
+        void handle(Path entryPath, InputStream entryInputStream) throws IOException;
+    }
+
+    /**
+     * Thrown when an archive exceeds the configured limits. Retrying won't help.
+     */
+    static class LimitExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Extraction {
+
+        private final long maxInflatedSize;
+        private final int maxEntries;
+        private final int maxCompressionRatio;
+
+        private long bytesIn;
+        private long bytesOut;
+        private int entries;
+        private int extractedEntries;
+
+        private Extraction(BuildReporterConfig buildReporterConfig) {
+            this.maxInflatedSize = buildReporterConfig.getMaxExtractedSize();
+            this.maxEntries = buildReporterConfig.getMaxExtractedEntries();
+            this.maxCompressionRatio = buildReporterConfig.getMaxCompressionRatio();
+        }
+
+        private void entry() throws LimitExceededException {
+            if (++entries > maxEntries) {
+                throw new LimitExceededException("Archive has more than " + maxEntries + " entries");
+            }
+        }
+
+        private void compressed(long bytes) {
+            if (bytes > 0) {
+                bytesIn += bytes;
+            }
+        }
+
+        private void inflated(long bytes) throws LimitExceededException {
+            bytesOut += bytes;
+
+            if (bytesOut > maxInflatedSize) {
+                throw new LimitExceededException("Archive inflates to more than " + maxInflatedSize + " bytes");
+            }
+            if (bytesOut > COMPRESSION_RATIO_THRESHOLD && bytesOut > bytesIn * maxCompressionRatio) {
+                throw new LimitExceededException("Archive has a compression ratio higher than " + maxCompressionRatio);
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read from the archive itself.
+     */
+    private static class CompressedInputStream extends FilterInputStream {
+
+        private final Extraction extraction;
+
+        private CompressedInputStream(InputStream in, Extraction extraction) {
+            super(in);
+            this.extraction = extraction;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                extraction.compressed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            extraction.compressed(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            extraction.compressed(skipped);
+            return skipped;
+        }
+    }
+
+    /**
+     * Counts the inflated bytes of an entry and enforces the limits.
+     * <p>
+     * Closing it doesn't close the underlying stream as the parsers close the stream they consume,
+     * which would close the whole zip stream.
+     */
+    private static class InflatedInputStream extends FilterInputStream {
+
+        private final Extraction extraction;
+
+        private InflatedInputStream(InputStream in, Extraction extraction) {
+            super(in);
+            this.extraction = extraction;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                extraction.inflated(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                extraction.inflated(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+
+            // skipping inflates the data too so we need to account for it
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.concurrent.Callable;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import org.awaitility.Awaitility;
-import org.awaitility.core.ConditionTimeoutException;
 import org.jboss.logging.Logger;
 import org.kohsuke.github.GHArtifact;
+import org.kohsuke.github.function.InputStreamFunction;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestResultsXmlParser;
 import io.quarkus.bot.buildreporter.githubactions.urlshortener.UrlShortener;
 
 @ApplicationScoped
@@ -26,61 +32,185 @@ class BuildReportsUnarchiver {
 
     private static final Logger LOG = Logger.getLogger(BuildReportsUnarchiver.class);
 
-    static final String NESTED_ZIP_FILE_NAME = "build-reports.zip";
+    private static final Duration DOWNLOAD_ATTEMPT_TIMEOUT = Duration.ofMinutes(2);
+    /**
+     * The attempt timeout is extended for the large artifacts so that they can be downloaded on a slow link.
+     */
+    private static final long DOWNLOAD_MIN_THROUGHPUT_BYTES_PER_SECOND = 512 * 1024;
+
+    private static final RetryPolicy DOWNLOAD_RETRY_POLICY = RetryPolicy.builder()
+            .delay(Duration.ofSeconds(2))
+            .maxDelay(Duration.ofSeconds(30))
+            .attemptTimeout(DOWNLOAD_ATTEMPT_TIMEOUT)
+            .maxDuration(Duration.ofMinutes(5))
+            .retryOn(t -> !RetryPolicy.hasCause(t, BuildReportsExtractor.LimitExceededException.class)
+                    && RetryPolicy.isRetryable(t))
+            .build();
 
     @Inject
     UrlShortener urlShortener;
 
+    @Inject
+    BuildReportsArtifactCache buildReportsArtifactCache;
+
+    @Inject
+    BuildReportsExtractor buildReportsExtractor;
+
+    /**
+     * When {@link BuildReporterConfig#isInMemoryAnalysis()} is enabled, the reports are parsed while streaming the artifact
+     * and nothing is written to {@code jobDirectory}, which is only used to resolve the module names.
+     */
     public Optional<BuildReports> getBuildReports(WorkflowContext workflowContext,
+            BuildReporterConfig buildReporterConfig,
             GHArtifact buildReportsArtifact,
             Path jobDirectory) throws IOException {
-        ArtifactIsDownloaded artifactIsDownloaded = new ArtifactIsDownloaded(workflowContext, buildReportsArtifact,
-                jobDirectory);
-
-        try {
-            Awaitility.await()
-                    .atMost(Duration.ofMinutes(5))
-                    .pollDelay(Duration.ofSeconds(5))
-                    .pollInterval(Duration.ofSeconds(60))
-                    .until(artifactIsDownloaded);
-        } catch (ConditionTimeoutException e) {
-            LOG.warn(workflowContext.getLogContext()
-                    + " - Unable to download the artifacts in a timely manner, ignoring them");
+        ArtifactIsDownloaded artifactIsDownloaded = new ArtifactIsDownloaded(workflowContext, buildReporterConfig,
+                buildReportsArtifactCache, buildReportsExtractor, buildReportsArtifact, jobDirectory);
+
+        RetryPolicy retryPolicy = DOWNLOAD_RETRY_POLICY.withAttemptTimeout(getAttemptTimeout(buildReportsArtifact));
+        RetryPolicy.Outcome outcome = retryPolicy.awaitOutcome(artifactIsDownloaded);
+        if (!outcome.isMet()) {
+            if (outcome.getFailure().isPresent()) {
+                LOG.warn(workflowContext.getLogContext() + " - Unable to download artifact "
+                        + buildReportsArtifact.getName() + ", ignoring it", outcome.getFailure().get());
+            } else {
+                LOG.warn(workflowContext.getLogContext()
+                        + " - Unable to download the artifacts in a timely manner, ignoring them");
+            }
             return Optional.empty();
         }
 
         return artifactIsDownloaded.getBuildReports();
     }
 
-    private static class ArtifactIsDownloaded implements Callable<Boolean> {
+    /**
+     * Parses the interesting entries directly from the zip stream, without writing anything to disk.
+     * <p>
+     * The job directory is only used to resolve the module names, it is normalized as the entries are.
+     */
+    static BuildReports analyze(WorkflowContext workflowContext, BuildReporterConfig buildReporterConfig,
+            BuildReportsExtractor buildReportsExtractor, String artifactName, InputStream inputStream, Path jobDirectory)
+            throws IOException {
+        Path normalizedJobDirectory = jobDirectory.toAbsolutePath().normalize();
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(normalizedJobDirectory);
+        // the build reports are merged while streaming them, one project report at a time
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        AtomicBoolean hasBuildReports = new AtomicBoolean();
+        StringPool stringPool = new StringPool();
+
+        buildReportsExtractor.process(inputStream, normalizedJobDirectory, buildReporterConfig,
+                (entryPath, entryInputStream) -> {
+                    try {
+                        if (entryPath.endsWith(WorkflowConstants.BUILD_REPORT_PATH)) {
+                            hasBuildReports.set(true);
+                            buildReportMerger.merge(entryInputStream);
+                        } else if (entryPath.endsWith(WorkflowConstants.GRADLE_BUILD_SCAN_URL_PATH)) {
+                            buildReportsBuilder.gradleBuildScanUrl(
+                                    new String(entryInputStream.readAllBytes(), StandardCharsets.UTF_8).trim());
+                        } else if (BuildReports.Builder.isTestResultsFile(entryPath)) {
+                            buildReportsBuilder.addTestResults(entryPath,
+                                    TestResultsXmlParser.parse(entryInputStream, stringPool));
+                        }
+                    } catch (JsonProcessingException e) {
+                        logUnparseableEntry(workflowContext, artifactName, normalizedJobDirectory, entryPath, e);
+                    } catch (IOException e) {
+                        // we can't go further if the stream is broken
+                        throw e;
+                    } catch (Exception e) {
+                        logUnparseableEntry(workflowContext, artifactName, normalizedJobDirectory, entryPath, e);
+                    }
+                });
+
+        if (hasBuildReports.get()) {
+            buildReportsBuilder.addBuildReport(buildReportMerger.build());
+        }
+
+        return buildReportsBuilder.build();
+    }
+
+    private static void logUnparseableEntry(WorkflowContext workflowContext, String artifactName, Path jobDirectory,
+            Path entryPath, Exception e) {
+        LOG.error(workflowContext.getLogContext() + " - Unable to parse " + jobDirectory.relativize(entryPath)
+                + " from artifact " + artifactName, e);
+    }
+
+    private static Duration getAttemptTimeout(GHArtifact buildReportsArtifact) {
+        return DOWNLOAD_ATTEMPT_TIMEOUT
+                .plusSeconds(buildReportsArtifact.getSizeInBytes() / DOWNLOAD_MIN_THROUGHPUT_BYTES_PER_SECOND);
+    }
+
+    private static class ArtifactIsDownloaded implements Callable<Boolean>, RetryPolicy.Abortable {
 
         private static final Logger LOG = Logger.getLogger(ArtifactIsDownloaded.class);
 
         private final WorkflowContext workflowContext;
+        private final BuildReporterConfig buildReporterConfig;
+        private final BuildReportsArtifactCache buildReportsArtifactCache;
+        private final BuildReportsExtractor buildReportsExtractor;
         private final GHArtifact buildReportsArtifact;
         private final Path jobDirectory;
-        private BuildReports buildReports = null;
-        private int retry = 0;
+        private volatile BuildReports buildReports = null;
+        private volatile AbortableStreams abortableStreams;
+        private final AtomicInteger retry = new AtomicInteger();
 
         private ArtifactIsDownloaded(WorkflowContext workflowContext,
+                BuildReporterConfig buildReporterConfig,
+                BuildReportsArtifactCache buildReportsArtifactCache,
+                BuildReportsExtractor buildReportsExtractor,
                 GHArtifact buildReportsArtifact,
                 Path jobDirectory) {
             this.workflowContext = workflowContext;
+            this.buildReporterConfig = buildReporterConfig;
+            this.buildReportsArtifactCache = buildReportsArtifactCache;
+            this.buildReportsExtractor = buildReportsExtractor;
             this.buildReportsArtifact = buildReportsArtifact;
             this.jobDirectory = jobDirectory;
         }
 
         @Override
-        public Boolean call() {
+        public Boolean call() throws IOException {
+            int currentRetry = retry.incrementAndGet();
+            Path retryDirectory = jobDirectory.resolve("retry-" + currentRetry);
+            AbortableStreams attemptStreams = new AbortableStreams();
+            abortableStreams = attemptStreams;
             try {
-                retry++;
-                buildReports = buildReportsArtifact
-                        .download((is) -> unzip(is, jobDirectory.resolve("retry-" + retry)));
+                InputStreamFunction<BuildReports> extractFunction = buildReporterConfig.isInMemoryAnalysis()
+                        ? (is) -> analyze(workflowContext, buildReporterConfig, buildReportsExtractor,
+                                buildReportsArtifact.getName(), is, retryDirectory)
+                        : (is) -> buildReportsExtractor.extract(is, retryDirectory, buildReporterConfig);
+
+                BuildReports attemptBuildReports;
+                if (buildReporterConfig.isArtifactCacheEnabled()) {
+                    attemptBuildReports = buildReportsArtifactCache.download(buildReportsArtifact,
+                            buildReporterConfig.getArtifactCacheDirectory(), buildReporterConfig.getArtifactCacheMaxSize(),
+                            attemptStreams, extractFunction);
+                } else {
+                    attemptBuildReports = buildReportsArtifact
+                            .download(is -> extractFunction.apply(attemptStreams.register(is)));
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    // the attempt timed out and has been abandoned
+                    deleteDirectory(retryDirectory);
+                    return false;
+                }
+
+                buildReports = attemptBuildReports;
                 return true;
-            } catch (Exception e) {
+            } catch (IOException | RuntimeException e) {
                 LOG.error(workflowContext.getLogContext() + " - Unable to download artifact "
-                        + buildReportsArtifact.getName() + "- retry #" + retry, e);
-                return false;
+                        + buildReportsArtifact.getName() + "- retry #" + currentRetry, e);
+                deleteDirectory(retryDirectory);
+                throw e;
+            }
+        }
+
+        @Override
+        public void abort() {
+            // closing the streams is the only way to unblock a socket read
+            AbortableStreams attemptStreams = abortableStreams;
+            if (attemptStreams != null) {
+                attemptStreams.abort();
             }
         }
 
@@ -88,56 +218,22 @@ class BuildReportsUnarchiver {
             return Optional.ofNullable(buildReports);
         }
 
-        private BuildReports unzip(InputStream inputStream, Path jobDirectory) throws IOException {
-            BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(jobDirectory);
-
-            try (final ZipInputStream zis = new ZipInputStream(inputStream)) {
-                final byte[] buffer = new byte[1024];
-                ZipEntry zipEntry = zis.getNextEntry();
-                while (zipEntry != null) {
-                    final Path newPath = getZipEntryPath(jobDirectory, zipEntry);
-                    final File newFile = newPath.toFile();
-
-                    if (zipEntry.isDirectory()) {
-                        if (!newFile.isDirectory() && !newFile.mkdirs()) {
-                            throw new IOException("Failed to create directory " + newFile);
-                        }
-                    } else if (NESTED_ZIP_FILE_NAME.equals(zipEntry.getName())) {
-                        return unzip(zis, jobDirectory);
-                    } else {
-                        File parent = newFile.getParentFile();
-                        if (!parent.isDirectory() && !parent.mkdirs()) {
-                            throw new IOException("Failed to create directory " + parent);
-                        }
-
-                        final FileOutputStream fos = new FileOutputStream(newFile);
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-
-                        fos.close();
-                    }
-
-                    buildReportsBuilder.addPath(newPath);
-
-                    zipEntry = zis.getNextEntry();
-                }
-                zis.closeEntry();
+        /**
+         * When analyzing in memory, nothing has been written to the directory which is only used to resolve the module names
+         * so we leave it alone.
+         */
+        private void deleteDirectory(Path directory) {
+            if (buildReporterConfig.isInMemoryAnalysis() || !Files.exists(directory)) {
+                return;
             }
 
-            return buildReportsBuilder.build();
-        }
-
-        private static Path getZipEntryPath(Path destinationDirectory, ZipEntry zipEntry) throws IOException {
-            Path destinationFile = destinationDirectory.resolve(zipEntry.getName());
-
-            if (!destinationFile.toAbsolutePath().startsWith(destinationDirectory.toAbsolutePath())) {
-                throw new IOException("Entry is outside of the target dir: " + zipEntry.getName());
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder())
+                        .map(Path::toFile)
+                        .forEach(File::delete);
+            } catch (IOException e) {
+                LOG.warn("Unable to delete directory " + directory, e);
             }
-
-            return destinationFile;
         }
     }
-
 }
@@ -0,0 +1,144 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportFlakyTestCase;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportFlakyTestCase.Flake;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportTestCase;
+
+/**
+ * Estimates the length of the check run report for a given level of detail without rendering it.
+ * <p>
+ * The estimate is a lower bound: it only accounts for the values that end up in the report as is or escaped,
+ * and ignores the markup around them. If it exceeds the limit, the report cannot fit at this level of detail and we can
+ * skip rendering it, otherwise the report still has to be rendered to know if it fits.
+ */
+final class CheckRunReportSizeEstimator {
+
+    private CheckRunReportSizeEstimator() {
+    }
+
+    static int estimate(WorkflowReport report, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel) {
+        boolean includeHistoryLinks = develocityEnabled && develocityUrl != null && !develocityUrl.isEmpty();
+        long estimate = 0;
+
+        for (WorkflowReportJob job : report.getJobsWithReportedFailures()) {
+            estimate += estimateJobFailures(report, job, includeHistoryLinks, develocityUrl, detailLevel, false);
+        }
+
+        for (WorkflowReportJob job : report.getJobsWithFlakyTests()) {
+            estimate += job.getName().length();
+
+            for (WorkflowReportModule module : job.getModulesWithFlakyTests()) {
+                estimate += length(module.getName());
+
+                for (WorkflowReportFlakyTestCase flakyTest : module.getFlakyTests()) {
+                    estimate += flakyTest.getFullName().length();
+                    if (includeHistoryLinks) {
+                        estimate += develocityUrl.length()
+                                + flakyTest.getFullClassName().length() + flakyTest.getName().length();
+                    }
+
+                    for (Flake flake : flakyTest.getFlakes()) {
+                        estimate += length(flake.getMessage()) + length(flake.getType());
+                        if (detailLevel.includeStackTraces()) {
+                            estimate += trimmedLength(flake.getAbbreviatedStackTrace());
+                        }
+                    }
+                }
+            }
+        }
+
+        return (int) Math.min(estimate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Estimates the length of the check run report of a job that has its own check run.
+     */
+    static int estimateJob(WorkflowReport report, WorkflowReportJob job, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel) {
+        boolean includeHistoryLinks = develocityEnabled && develocityUrl != null && !develocityUrl.isEmpty();
+        // the duplicate failures are expanded as the job they duplicate is not in the same check run
+        return (int) Math.min(estimateJobFailures(report, job, includeHistoryLinks, develocityUrl, detailLevel, true),
+                Integer.MAX_VALUE);
+    }
+
+    private static long estimateJobFailures(WorkflowReport report, WorkflowReportJob job, boolean includeHistoryLinks,
+            String develocityUrl, ReportDetailLevel detailLevel, boolean expandDuplicates) {
+        long estimate = job.getName().length();
+        for (String failingModule : job.getFirstFailingModules()) {
+            estimate += failingModule.length() + 1;
+        }
+        for (String skippedModule : job.getFirstSkippedModules()) {
+            estimate += skippedModule.length() + 1;
+        }
+
+        for (WorkflowReportModule module : job.getModulesWithReportedFailures()) {
+            estimate += length(module.getName());
+            if (module.getTestFailures().isEmpty()) {
+                // the failure of the project is only displayed when there are no test failures
+                estimate += length(module.getProjectReportFailure());
+            }
+
+            for (WorkflowReportTestCase failure : module.getTestFailures()) {
+                estimate += failure.getFullName().length();
+
+                if (failure.isDuplicate()) {
+                    if (!expandDuplicates) {
+                        estimate += length(failure.getDuplicateOfJobName())
+                                + length(failure.getDuplicateOfFailuresAnchor());
+                        continue;
+                    }
+                    estimate += length(failure.getDuplicateOfJobName());
+                }
+
+                if (failure.getFailureErrorLine() != null) {
+                    estimate += failure.getFailureErrorLine().length();
+                    if (report.isSameRepository()) {
+                        estimate += length(failure.getShortenedFailureUrl());
+                    }
+                }
+                if (includeHistoryLinks) {
+                    estimate += develocityUrl.length() + failure.getFullClassName().length()
+                            + failure.getName().length();
+                }
+                if (detailLevel.includeFailureLinks()) {
+                    estimate += failure.getFullClassName().length() + length(failure.getShortenedFailureUrl());
+                }
+                if (detailLevel.includeStackTraces()) {
+                    estimate += trimmedLength(failure.getAbbreviatedFailureDetail());
+                }
+                for (String otherJobName : failure.getOtherJobNames()) {
+                    estimate += otherJobName.length();
+                }
+            }
+        }
+
+        return estimate;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * The stack traces are trimmed in the report, we count them the same way without copying them.
+     */
+    private static int trimmedLength(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start;
+    }
+}
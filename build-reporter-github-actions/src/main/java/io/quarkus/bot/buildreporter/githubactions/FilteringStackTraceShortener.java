@@ -0,0 +1,232 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.List;
+
+/**
+ * A {@link StackTraceShortener} producing the shortened stack trace in a single pass over the original one.
+ * <p>
+ * Consecutive frames of the JDK, JUnit, Surefire and reflection are collapsed into a single line
+ * so that the lines we keep are the interesting ones.
+ * When the stack trace has more lines than requested, the last line is replaced by a {@code ... N more} line.
+ * <p>
+ * It is not the default implementation, you can use it by producing it as the {@code StackTraceShortener} bean.
+ */
+public class FilteringStackTraceShortener implements StackTraceShortener {
+
+    public static final List<String> DEFAULT_FILTERED_FRAME_PREFIXES = List.of(
+            "java.",
+            "javax.",
+            "jdk.",
+            "sun.",
+            "org.junit.",
+            "junit.",
+            "org.apache.maven.surefire.",
+            "org.apache.maven.plugin.surefire.",
+            "org.gradle.api.internal.tasks.testing.");
+
+    private static final String FRAME_PREFIX = "at ";
+    private static final String ELLIPSIS = "...";
+
+    private final List<String> filteredFramePrefixes;
+
+    public FilteringStackTraceShortener() {
+        this(DEFAULT_FILTERED_FRAME_PREFIXES);
+    }
+
+    /**
+     * @param filteredFramePrefixes the prefixes of the classes whose frames are collapsed, an empty list disables the
+     *        filtering
+     */
+    public FilteringStackTraceShortener(List<String> filteredFramePrefixes) {
+        this.filteredFramePrefixes = List.copyOf(filteredFramePrefixes);
+    }
+
+    @Override
+    public String shorten(String stacktrace, int length) {
+        return shorten(stacktrace, length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public String shorten(String stacktrace, int length, int maxLines) {
+        if (stacktrace == null || stacktrace.isBlank()) {
+            return null;
+        }
+
+        Output output = new Output(stacktrace, length, maxLines);
+
+        int filteredFrames = 0;
+        int filteredStart = -1;
+        int filteredEnd = -1;
+
+        int position = 0;
+        while (position < stacktrace.length() && !output.full) {
+            int lineEnd = stacktrace.indexOf('\n', position);
+            if (lineEnd == -1) {
+                lineEnd = stacktrace.length();
+            }
+            int contentEnd = lineEnd > position && stacktrace.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            int nextPosition = lineEnd + 1;
+
+            if (isFilteredFrame(stacktrace, position, contentEnd)) {
+                if (filteredFrames++ == 0) {
+                    filteredStart = position;
+                    filteredEnd = contentEnd;
+                }
+                position = nextPosition;
+                continue;
+            }
+
+            if (filteredFrames > 0) {
+                appendFilteredFrames(output, stacktrace, filteredFrames, filteredStart, filteredEnd, true);
+                filteredFrames = 0;
+                if (output.full) {
+                    break;
+                }
+            }
+
+            output.append(stacktrace, position, contentEnd, position, nextPosition < stacktrace.length());
+            position = nextPosition;
+        }
+
+        if (filteredFrames > 0 && !output.full) {
+            appendFilteredFrames(output, stacktrace, filteredFrames, filteredStart, filteredEnd, false);
+        }
+
+        return output.toString();
+    }
+
+    private static void appendFilteredFrames(Output output, String stacktrace, int filteredFrames, int filteredStart,
+            int filteredEnd, boolean hasMore) {
+        if (filteredFrames == 1) {
+            // collapsing a single frame doesn't make it any shorter
+            output.append(stacktrace, filteredStart, filteredEnd, filteredStart, hasMore);
+            return;
+        }
+
+        String collapsed = getIndentation(stacktrace, filteredStart, filteredEnd) + ELLIPSIS + " " + filteredFrames
+                + " filtered frames";
+        output.append(collapsed, 0, collapsed.length(), filteredStart, hasMore);
+    }
+
+    private boolean isFilteredFrame(String stacktrace, int start, int end) {
+        int frameStart = skipWhitespaces(stacktrace, start, end);
+        if (!stacktrace.startsWith(FRAME_PREFIX, frameStart)) {
+            return false;
+        }
+        frameStart += FRAME_PREFIX.length();
+
+        // frames might be prefixed with the class loader and/or the module, e.g. app//org.acme.Test.test(Test.java:12)
+        // or java.base/java.util.Objects.requireNonNull(Objects.java:209)
+        for (int i = frameStart; i < end && stacktrace.charAt(i) != '('; i++) {
+            if (stacktrace.charAt(i) == '/') {
+                frameStart = i + 1;
+            }
+        }
+
+        for (String filteredFramePrefix : filteredFramePrefixes) {
+            if (stacktrace.startsWith(filteredFramePrefix, frameStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipWhitespaces(String stacktrace, int start, int end) {
+        int i = start;
+        while (i < end && Character.isWhitespace(stacktrace.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String getIndentation(String stacktrace, int start, int end) {
+        return stacktrace.substring(start, skipWhitespaces(stacktrace, start, end));
+    }
+
+    private static int countLines(String stacktrace, int start) {
+        int lines = 0;
+        int position = start;
+        while (position < stacktrace.length()) {
+            lines++;
+            int lineEnd = stacktrace.indexOf('\n', position);
+            if (lineEnd == -1) {
+                break;
+            }
+            position = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * Accumulates the lines while enforcing the length and the number of lines.
+     */
+    private static class Output {
+
+        private final String stacktrace;
+        private final StringBuilder sb;
+        private final int length;
+        private final int maxLines;
+
+        private int lines;
+        private boolean full;
+
+        private Output(String stacktrace, int length, int maxLines) {
+            this.stacktrace = stacktrace;
+            this.length = Math.max(length, ELLIPSIS.length() + 1);
+            this.maxLines = maxLines;
+            this.sb = new StringBuilder(Math.min(stacktrace.length(), this.length));
+        }
+
+        /**
+         * @param originalStart where this line starts in the original stack trace, to count the folded lines
+         * @param hasMore whether there are lines after this one in the original stack trace
+         */
+        private void append(String text, int start, int end, int originalStart, boolean hasMore) {
+            if (lines > 0 && lines == maxLines - 1 && hasMore) {
+                // this is the last line we can output and there are more: we fold them
+                String more = getIndentation(stacktrace, originalStart, stacktrace.length()) + ELLIPSIS + " "
+                        + countLines(stacktrace, originalStart) + " more";
+                appendLine(more, 0, more.length());
+                full = true;
+                return;
+            }
+
+            appendLine(text, start, end);
+            if (lines >= maxLines) {
+                full = true;
+            }
+        }
+
+        private void appendLine(String text, int start, int end) {
+            int separatorLength = lines > 0 ? 1 : 0;
+            int lineLength = end - start;
+
+            if (sb.length() + separatorLength + lineLength > length) {
+                // same behavior as StringUtils.abbreviate(): the result including the ellipsis fits in the length
+                int remaining = length - ELLIPSIS.length() - sb.length();
+                if (remaining > 0 && separatorLength > 0) {
+                    sb.append('\n');
+                    remaining--;
+                }
+                if (remaining > 0) {
+                    sb.append(text, start, start + Math.min(remaining, lineLength));
+                }
+                sb.append(ELLIPSIS);
+                lines++;
+                full = true;
+                return;
+            }
+
+            if (separatorLength > 0) {
+                sb.append('\n');
+            }
+            sb.append(text, start, end);
+            lines++;
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
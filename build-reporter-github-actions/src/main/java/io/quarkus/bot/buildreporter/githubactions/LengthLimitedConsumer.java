@@ -0,0 +1,52 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.function.Consumer;
+
+/**
+ * Collects the output of a template and aborts the rendering as soon as it gets longer than the limit,
+ * so that we don't keep producing a text we will discard anyway.
+ */
+class LengthLimitedConsumer implements Consumer<String> {
+
+    private final StringBuilder sb;
+    private final int maxLength;
+
+    LengthLimitedConsumer(int maxLength) {
+        this.maxLength = maxLength;
+        this.sb = new StringBuilder(Math.min(maxLength, 16 * 1024));
+    }
+
+    @Override
+    public void accept(String part) {
+        if (sb.length() + part.length() > maxLength) {
+            throw new LengthLimitExceededException(maxLength);
+        }
+        sb.append(part);
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+
+    static boolean isLengthLimitExceeded(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof LengthLimitExceededException) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    static class LengthLimitExceededException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        LengthLimitExceededException(int maxLength) {
+            // it is used for flow control, no need for a stack trace
+            super("The rendered text is longer than " + maxLength + " characters", null, false, false);
+        }
+    }
+}
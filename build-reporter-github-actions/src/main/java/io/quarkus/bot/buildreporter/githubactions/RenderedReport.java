@@ -0,0 +1,32 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.List;
+
+/**
+ * A report rendered within a length budget, with what had to be left out to fit.
+ */
+class RenderedReport {
+
+    private final String text;
+    private final List<String> elisions;
+
+    RenderedReport(String text, List<String> elisions) {
+        this.text = text;
+        this.elisions = List.copyOf(elisions);
+    }
+
+    String getText() {
+        return text;
+    }
+
+    /**
+     * @return a description of each part of the report that was left out, empty if the report is complete
+     */
+    List<String> getElisions() {
+        return elisions;
+    }
+
+    boolean isComplete() {
+        return elisions.isEmpty();
+    }
+}
@@ -0,0 +1,293 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.github.GHCheckRun;
+
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJobIncludeStrategy;
+
+/**
+ * Renders the report comment so that it fits in a given length.
+ * <p>
+ * The frame of the comment is rendered once, then the failures of each job are rendered separately and assembled within
+ * the remaining budget: we first try to keep all the details for all the jobs, then drop the stack traces, then the
+ * failure links, then the failures themselves, always favoring the first jobs.
+ * Only if the frame itself doesn't fit, we drop the stack traces of the flaky tests and the Develocity links.
+ */
+@Singleton
+class ReportCommentRenderer {
+
+    private static final String FAILURES_MARKER = "<!-- build-reporter-failures -->";
+    private static final String ELISION_NOTICE_MARKER = "<!-- build-reporter-elision-notice -->";
+
+    /**
+     * The room we keep for the elision notice, it only contains a few counters so it is short.
+     */
+    private static final int ELISION_NOTICE_RESERVE = 500;
+
+    private static final ReportDetailLevel[] DETAIL_LEVELS = ReportDetailLevel.values();
+
+    @Inject
+    WorkflowReportFormatter workflowReportFormatter;
+
+    RenderedReport render(ReportFragments reportFragments, boolean artifactsAvailable, GHCheckRun checkRun,
+            String messageIdActive, String workflowRunId, String buildScansCheckRunMarker,
+            boolean develocityEnabled, String develocityUrl, boolean indicateSuccess, boolean hasOtherPendingCheckRuns,
+            WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy, int maxLength) {
+        WorkflowReport report = reportFragments.getReport();
+
+        List<Frame> frames = new ArrayList<>();
+        frames.add(new Frame(true, develocityEnabled, develocityUrl));
+        frames.add(new Frame(false, develocityEnabled, develocityUrl));
+        if (develocityEnabled) {
+            frames.add(new Frame(false, false, null));
+        }
+
+        JobFailures jobFailures = null;
+        String frameText = null;
+        String text = null;
+        List<String> elisions = null;
+
+        for (Frame frame : frames) {
+            if (jobFailures == null || jobFailures.develocityEnabled != frame.develocityEnabled) {
+                jobFailures = new JobFailures(reportFragments, checkRun, frame.develocityEnabled, frame.develocityUrl);
+            }
+
+            // the frame is rendered once with markers, the failures and the notice are spliced in afterwards
+            frameText = renderFrame(report, artifactsAvailable, checkRun, messageIdActive, workflowRunId,
+                    buildScansCheckRunMarker, indicateSuccess, hasOtherPendingCheckRuns, workflowReportJobIncludeStrategy,
+                    frame);
+            int budget = maxLength - (frameText.length() - FAILURES_MARKER.length() - ELISION_NOTICE_MARKER.length())
+                    - ELISION_NOTICE_RESERVE;
+            if (budget < 0) {
+                continue;
+            }
+
+            elisions = new ArrayList<>();
+            if (!frame.includeFlakyStackTraces && report.hasFlakyTests()) {
+                elisions.add("the stack traces of the flaky tests");
+            }
+            if (!frame.develocityEnabled && develocityEnabled) {
+                elisions.add("the Develocity links");
+            }
+
+            String failures = jobFailures.assemble(budget, elisions);
+
+            text = splice(frameText, failures, getElisionNotice(elisions));
+            if (text.length() <= maxLength) {
+                return new RenderedReport(text, elisions);
+            }
+        }
+
+        if (text == null) {
+            // even the most compact frame doesn't fit, this shouldn't happen in practice
+            elisions = new ArrayList<>(List.of("the failures"));
+            text = splice(frameText, "", getElisionNotice(elisions));
+        }
+        elisions.add("the end of the report");
+        return new RenderedReport(StringUtils.abbreviate(text, maxLength), elisions);
+    }
+
+    private String renderFrame(WorkflowReport report, boolean artifactsAvailable, GHCheckRun checkRun,
+            String messageIdActive, String workflowRunId, String buildScansCheckRunMarker,
+            boolean indicateSuccess, boolean hasOtherPendingCheckRuns,
+            WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy, Frame frame) {
+        return workflowReportFormatter.getReportComment(report, artifactsAvailable, checkRun, messageIdActive,
+                workflowRunId, buildScansCheckRunMarker, frame.develocityEnabled, frame.develocityUrl, indicateSuccess,
+                hasOtherPendingCheckRuns, frame.includeFlakyStackTraces, workflowReportJobIncludeStrategy, FAILURES_MARKER,
+                ELISION_NOTICE_MARKER);
+    }
+
+    private static String splice(String frameText, String failures, String elisionNotice) {
+        // the notice is spliced first so that we don't look for its marker in the failures
+        return frameText.replace(ELISION_NOTICE_MARKER, elisionNotice).replace(FAILURES_MARKER, failures);
+    }
+
+    private static String getElisionNotice(List<String> elisions) {
+        if (elisions.isEmpty()) {
+            return "";
+        }
+
+        return "> [!WARNING]\n"
+                + "> The report was too long: " + String.join(", ", elisions) + " could not be included."
+                + " See the annotations of the Build summary check run for the details.\n\n";
+    }
+
+    private static String jobs(int count) {
+        return count + (count == 1 ? " job" : " jobs");
+    }
+
+    private static final class Frame {
+
+        private final boolean includeFlakyStackTraces;
+        private final boolean develocityEnabled;
+        private final String develocityUrl;
+
+        private Frame(boolean includeFlakyStackTraces, boolean develocityEnabled, String develocityUrl) {
+            this.includeFlakyStackTraces = includeFlakyStackTraces;
+            this.develocityEnabled = develocityEnabled;
+            this.develocityUrl = develocityUrl;
+        }
+    }
+
+    /**
+     * The failures of each job, for a given frame.
+     */
+    private static final class JobFailures {
+
+        private final ReportFragments reportFragments;
+        private final List<WorkflowReportJob> jobs;
+        private final GHCheckRun checkRun;
+        private final boolean develocityEnabled;
+        private final String develocityUrl;
+
+        private JobFailures(ReportFragments reportFragments, GHCheckRun checkRun, boolean develocityEnabled,
+                String develocityUrl) {
+            this.reportFragments = reportFragments;
+            this.jobs = reportFragments.getReport().getJobsWithReportedFailures();
+            this.checkRun = checkRun;
+            this.develocityEnabled = develocityEnabled;
+            this.develocityUrl = develocityUrl;
+        }
+
+        private String get(int i, ReportDetailLevel detailLevel) {
+            return reportFragments.getCommentJobFailures(jobs.get(i), checkRun, develocityEnabled, develocityUrl,
+                    detailLevel);
+        }
+
+        private String getOmitted(int i) {
+            return reportFragments.getCommentJobFailuresOmitted(jobs.get(i), checkRun);
+        }
+
+        private int length(int i, ReportDetailLevel detailLevel) {
+            // jobs are separated by a separator, we account for it with each job but the first one
+            return get(i, detailLevel).length() + (i > 0 ? WorkflowReportFormatter.JOB_FAILURES_SEPARATOR.length() : 0);
+        }
+
+        private int omittedLength(int i) {
+            return getOmitted(i).length() + (i > 0 ? WorkflowReportFormatter.JOB_FAILURES_SEPARATOR.length() : 0);
+        }
+
+        /**
+         * @return the failures of the jobs, fitting in the budget
+         */
+        private String assemble(int budget, List<String> elisions) {
+            // null means the failures of the job are omitted, a job after the last included one is dropped entirely
+            ReportDetailLevel[] detailLevels = new ReportDetailLevel[jobs.size()];
+            int includedJobs = jobs.size();
+            int used = 0;
+
+            ReportDetailLevel uniformDetailLevel = null;
+            for (ReportDetailLevel detailLevel : DETAIL_LEVELS) {
+                int total = 0;
+                for (int i = 0; i < jobs.size() && total <= budget; i++) {
+                    total += length(i, detailLevel);
+                }
+                if (total <= budget) {
+                    uniformDetailLevel = detailLevel;
+                    used = total;
+                    break;
+                }
+            }
+
+            if (uniformDetailLevel != null) {
+                // everything fits at this level, let's give more details to the first jobs if we can
+                for (int i = 0; i < jobs.size(); i++) {
+                    detailLevels[i] = uniformDetailLevel;
+                    for (int j = 0; j < uniformDetailLevel.ordinal(); j++) {
+                        int extra = length(i, DETAIL_LEVELS[j]) - length(i, uniformDetailLevel);
+                        if (used + extra <= budget) {
+                            detailLevels[i] = DETAIL_LEVELS[j];
+                            used += extra;
+                            break;
+                        }
+                    }
+                }
+            } else {
+                // we keep the minimal failures of the first jobs and only the headers of the following ones,
+                // if even the headers don't fit, we drop the last jobs
+                int[] remainingOmittedLengths = new int[jobs.size() + 1];
+                for (int i = jobs.size() - 1; i >= 0; i--) {
+                    remainingOmittedLengths[i] = remainingOmittedLengths[i + 1] + omittedLength(i);
+                }
+
+                for (int i = 0; i < jobs.size(); i++) {
+                    int minimalLength = length(i, ReportDetailLevel.MINIMAL);
+                    if (used + minimalLength + remainingOmittedLengths[i + 1] <= budget) {
+                        detailLevels[i] = ReportDetailLevel.MINIMAL;
+                        used += minimalLength;
+                    } else if (used + omittedLength(i) <= budget) {
+                        used += omittedLength(i);
+                    } else {
+                        includedJobs = i;
+                        break;
+                    }
+                }
+            }
+
+            int stackTracesElided = 0;
+            int failureLinksElided = 0;
+            int failuresElided = 0;
+            StringBuilder failures = new StringBuilder(used);
+            for (int i = 0; i < includedJobs; i++) {
+                if (i > 0) {
+                    failures.append(WorkflowReportFormatter.JOB_FAILURES_SEPARATOR);
+                }
+
+                ReportDetailLevel detailLevel = detailLevels[i];
+                if (detailLevel == null) {
+                    failures.append(getOmitted(i));
+                    failuresElided++;
+                    continue;
+                }
+
+                failures.append(get(i, detailLevel));
+                // we only report what actually made a difference, without rendering the more detailed fragments
+                if (!detailLevel.includeStackTraces() && hasStackTraces(jobs.get(i))) {
+                    stackTracesElided++;
+                }
+                if (!detailLevel.includeFailureLinks() && hasFailureLinks(jobs.get(i))) {
+                    failureLinksElided++;
+                }
+            }
+            failuresElided += jobs.size() - includedJobs;
+
+            if (stackTracesElided > 0) {
+                elisions.add("the stack traces of " + jobs(stackTracesElided));
+            }
+            if (failureLinksElided > 0) {
+                elisions.add("the failure links of " + jobs(failureLinksElided));
+            }
+            if (failuresElided > 0) {
+                elisions.add("the failures of " + jobs(failuresElided));
+            }
+
+            return failures.toString();
+        }
+
+        /**
+         * @return whether the failures of the job have stack traces, the duplicate failures don't include them
+         */
+        private static boolean hasStackTraces(WorkflowReportJob job) {
+            return job.getModulesWithReportedFailures().stream()
+                    .flatMap(m -> m.getTestFailures().stream())
+                    .anyMatch(f -> !f.isDuplicate() && StringUtils.isNotEmpty(f.getAbbreviatedFailureDetail()));
+        }
+
+        /**
+         * @return whether the failures of the job have links, the duplicate failures don't include them
+         */
+        private static boolean hasFailureLinks(WorkflowReportJob job) {
+            return job.getModulesWithReportedFailures().stream()
+                    .flatMap(m -> m.getTestFailures().stream())
+                    .anyMatch(f -> !f.isDuplicate());
+        }
+    }
+}
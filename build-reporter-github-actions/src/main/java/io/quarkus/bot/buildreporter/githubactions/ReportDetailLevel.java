@@ -0,0 +1,40 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+/**
+ * The level of detail of the failures included in a report, from the most to the least detailed.
+ * <p>
+ * When a report is too long, the stack traces are dropped first, then the failure links.
+ */
+public enum ReportDetailLevel {
+
+    FULL(true, true),
+    FAILURE_LINKS(false, true),
+    MINIMAL(false, false);
+
+    private final boolean includeStackTraces;
+    private final boolean includeFailureLinks;
+
+    ReportDetailLevel(boolean includeStackTraces, boolean includeFailureLinks) {
+        this.includeStackTraces = includeStackTraces;
+        this.includeFailureLinks = includeFailureLinks;
+    }
+
+    public boolean includeStackTraces() {
+        return includeStackTraces;
+    }
+
+    public boolean includeFailureLinks() {
+        return includeFailureLinks;
+    }
+
+    public static ReportDetailLevel of(boolean includeStackTraces, boolean includeFailureLinks) {
+        if (includeStackTraces && includeFailureLinks) {
+            return FULL;
+        }
+        if (includeFailureLinks) {
+            return FAILURE_LINKS;
+        }
+        // we don't have a level with stack traces but without links, stack traces are dropped first
+        return MINIMAL;
+    }
+}
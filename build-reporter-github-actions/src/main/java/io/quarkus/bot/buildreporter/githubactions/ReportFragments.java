@@ -0,0 +1,149 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.kohsuke.github.GHCheckRun;
+
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
+
+/**
+ * The failures of each job of a report, rendered once per template and level of detail.
+ * <p>
+ * The failures are the bulk of the comment and the check run report, and we might render both several times to fit in the
+ * GitHub limits: sharing the fragments avoids walking the modules and escaping the same stack traces again and again.
+ * <p>
+ * An instance is only valid for a given report and check run.
+ */
+class ReportFragments {
+
+    private final WorkflowReportFormatter workflowReportFormatter;
+    private final WorkflowReport report;
+    private final Map<Key, String> fragments = new ConcurrentHashMap<>();
+    private final Map<WorkflowReportJob, GHCheckRun> jobCheckRuns = new ConcurrentHashMap<>();
+
+    ReportFragments(WorkflowReportFormatter workflowReportFormatter, WorkflowReport report) {
+        this.workflowReportFormatter = workflowReportFormatter;
+        this.report = report;
+    }
+
+    WorkflowReport getReport() {
+        return report;
+    }
+
+    /**
+     * Registers the check run dedicated to a job, the comment and the build summary check run then point to it instead of
+     * including the failures of the job in the build summary check run.
+     * <p>
+     * The check runs have to be registered before rendering the build summary check run and the comment.
+     */
+    void setJobCheckRun(WorkflowReportJob job, GHCheckRun checkRun) {
+        jobCheckRuns.put(job, checkRun);
+    }
+
+    boolean hasJobCheckRuns() {
+        return !jobCheckRuns.isEmpty();
+    }
+
+    private GHCheckRun getCheckRun(WorkflowReportJob job, GHCheckRun checkRun) {
+        return jobCheckRuns.getOrDefault(job, checkRun);
+    }
+
+    String getCommentJobFailures(WorkflowReportJob job, GHCheckRun checkRun, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel) {
+        return fragments.computeIfAbsent(new Key(Kind.COMMENT, job, detailLevel, develocityEnabled, develocityUrl),
+                k -> workflowReportFormatter.getReportCommentJobFailures(job, getCheckRun(job, checkRun),
+                        develocityEnabled, develocityUrl, detailLevel));
+    }
+
+    String getCommentJobFailuresOmitted(WorkflowReportJob job, GHCheckRun checkRun) {
+        return fragments.computeIfAbsent(new Key(Kind.COMMENT_OMITTED, job, null, false, null),
+                k -> workflowReportFormatter.getReportCommentJobFailuresOmitted(job, getCheckRun(job, checkRun)));
+    }
+
+    String getCommentFailures(GHCheckRun checkRun, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel) {
+        return report.getJobsWithReportedFailures().stream()
+                .map(job -> getCommentJobFailures(job, checkRun, develocityEnabled, develocityUrl, detailLevel))
+                .collect(Collectors.joining(WorkflowReportFormatter.JOB_FAILURES_SEPARATOR));
+    }
+
+    String getCheckRunJobFailures(WorkflowReportJob job, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel) {
+        return fragments.computeIfAbsent(new Key(Kind.CHECK_RUN, job, detailLevel, develocityEnabled, develocityUrl),
+                k -> workflowReportFormatter.getCheckRunReportJobFailures(report, job, develocityEnabled, develocityUrl,
+                        detailLevel, false));
+    }
+
+    /**
+     * The failures of a job reported in its own check run: the failures already reported in another job are on another
+     * page so they are rendered in full.
+     */
+    String getJobCheckRunFailures(WorkflowReportJob job, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel) {
+        return fragments.computeIfAbsent(new Key(Kind.JOB_CHECK_RUN, job, detailLevel, develocityEnabled, develocityUrl),
+                k -> workflowReportFormatter.getCheckRunReportJobFailures(report, job, develocityEnabled, develocityUrl,
+                        detailLevel, true));
+    }
+
+    String getCheckRunFailures(boolean develocityEnabled, String develocityUrl, ReportDetailLevel detailLevel) {
+        return report.getJobsWithReportedFailures().stream()
+                .map(job -> jobCheckRuns.containsKey(job)
+                        ? getCheckRunJobCheckRun(job)
+                        : getCheckRunJobFailures(job, develocityEnabled, develocityUrl, detailLevel))
+                .collect(Collectors.joining(WorkflowReportFormatter.JOB_FAILURES_SEPARATOR));
+    }
+
+    private String getCheckRunJobCheckRun(WorkflowReportJob job) {
+        return fragments.computeIfAbsent(new Key(Kind.CHECK_RUN_JOB_CHECK_RUN, job, null, false, null),
+                k -> workflowReportFormatter.getCheckRunReportJobCheckRun(job, jobCheckRuns.get(job)));
+    }
+
+    private enum Kind {
+        COMMENT,
+        COMMENT_OMITTED,
+        CHECK_RUN,
+        CHECK_RUN_JOB_CHECK_RUN,
+        JOB_CHECK_RUN
+    }
+
+    private static final class Key {
+
+        private final Kind kind;
+        private final WorkflowReportJob job;
+        private final ReportDetailLevel detailLevel;
+        private final boolean develocityEnabled;
+        private final String develocityUrl;
+
+        private Key(Kind kind, WorkflowReportJob job, ReportDetailLevel detailLevel, boolean develocityEnabled,
+                String develocityUrl) {
+            this.kind = kind;
+            this.job = job;
+            this.detailLevel = detailLevel;
+            this.develocityEnabled = develocityEnabled;
+            this.develocityUrl = develocityUrl;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            // jobs are compared by identity, they don't implement equals()
+            return kind == other.kind && job == other.job && detailLevel == other.detailLevel
+                    && develocityEnabled == other.develocityEnabled && Objects.equals(develocityUrl, other.develocityUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, System.identityHashCode(job), detailLevel, develocityEnabled, develocityUrl);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.HttpException;
+
+/**
+ * Calls a condition until it is met, with an exponential backoff between the attempts.
+ * <p>
+ * Each attempt is bounded by a timeout and exceptions are classified: transient errors (5xx, connection resets...)
+ * are retried, others (e.g. 404) abort the retries immediately.
+ * <p>
+ * Interrupting a thread doesn't interrupt a blocking socket read so, when an attempt times out, the condition is aborted
+ * if it implements {@link Abortable} and we wait for the attempt to complete before starting the next one.
+ */
+final class RetryPolicy {
+
+    private static final Logger LOG = Logger.getLogger(RetryPolicy.class);
+
+    private static final Duration ABORT_GRACE_PERIOD = Duration.ofSeconds(30);
+
+    private static final ExecutorService ATTEMPT_EXECUTOR = BuildReporterExecutors.newCachedThreadPool("retry");
+
+    private final Duration initialDelay;
+    private final Duration delay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final Duration attemptTimeout;
+    private final Duration maxDuration;
+    private final Predicate<Throwable> retryOn;
+
+    private RetryPolicy(Duration initialDelay, Duration delay, Duration maxDelay, double multiplier, double jitter,
+            Duration attemptTimeout, Duration maxDuration, Predicate<Throwable> retryOn) {
+        this.initialDelay = initialDelay;
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.attemptTimeout = attemptTimeout;
+        this.maxDuration = maxDuration;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * @return true if the condition has been met, false if we gave up
+     */
+    boolean await(Callable<Boolean> condition) {
+        return await(condition, duration -> TimeUnit.NANOSECONDS.sleep(duration.toNanos()));
+    }
+
+    /**
+     * @param sleeper waits between the attempts, it might return early if we know the condition should be checked again
+     * @return true if the condition has been met, false if we gave up
+     */
+    boolean await(Callable<Boolean> condition, Sleeper sleeper) {
+        return awaitOutcome(condition, sleeper).isMet();
+    }
+
+    /**
+     * @return the outcome, which tells why we gave up if the condition hasn't been met
+     */
+    Outcome awaitOutcome(Callable<Boolean> condition) {
+        return awaitOutcome(condition, duration -> TimeUnit.NANOSECONDS.sleep(duration.toNanos()));
+    }
+
+    /**
+     * @param sleeper waits between the attempts, it might return early if we know the condition should be checked again
+     * @return the outcome, which tells why we gave up if the condition hasn't been met
+     */
+    Outcome awaitOutcome(Callable<Boolean> condition, Sleeper sleeper) {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        Throwable lastFailure = null;
+
+        try {
+            sleep(sleeper, initialDelay, deadline);
+
+            for (int attempt = 1;; attempt++) {
+                CompletableFuture<Boolean> attemptResult = new CompletableFuture<>();
+                Future<?> attemptFuture = ATTEMPT_EXECUTOR.submit(() -> {
+                    try {
+                        attemptResult.complete(condition.call());
+                    } catch (Throwable t) {
+                        attemptResult.completeExceptionally(t);
+                    }
+                });
+                try {
+                    if (Boolean.TRUE.equals(attemptResult.get(attemptTimeout.toMillis(), TimeUnit.MILLISECONDS))) {
+                        return Outcome.MET;
+                    }
+                    lastFailure = null;
+                } catch (TimeoutException e) {
+                    LOG.debug("Attempt #" + attempt + " timed out after " + attemptTimeout);
+                    lastFailure = null;
+                    abort(condition, attemptFuture, attemptResult);
+                } catch (ExecutionException e) {
+                    if (!retryOn.test(e.getCause())) {
+                        LOG.debug("Attempt #" + attempt + " failed with a non retryable error, giving up", e.getCause());
+                        return new Outcome(e.getCause());
+                    }
+                    LOG.debug("Attempt #" + attempt + " failed with a retryable error", e.getCause());
+                    lastFailure = e.getCause();
+                }
+
+                if (System.nanoTime() >= deadline) {
+                    return new Outcome(lastFailure);
+                }
+
+                sleep(sleeper, getDelay(attempt), deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(lastFailure);
+        }
+    }
+
+    /**
+     * Aborts the attempt and waits for it to complete so that the attempts don't overlap.
+     */
+    private static void abort(Callable<Boolean> condition, Future<?> attemptFuture,
+            CompletableFuture<Boolean> attemptResult) throws InterruptedException {
+        if (condition instanceof Abortable) {
+            ((Abortable) condition).abort();
+        }
+        attemptFuture.cancel(true);
+
+        try {
+            attemptResult.get(ABORT_GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CancellationException e) {
+            // expected, the attempt has been aborted
+        } catch (TimeoutException e) {
+            LOG.warn("An aborted attempt is still running after " + ABORT_GRACE_PERIOD + ", starting a new attempt anyway");
+        }
+    }
+
+    /**
+     * @return a policy with the given attempt timeout, the maximum duration is extended accordingly
+     */
+    RetryPolicy withAttemptTimeout(Duration attemptTimeout) {
+        if (attemptTimeout.compareTo(this.attemptTimeout) <= 0) {
+            return this;
+        }
+
+        return new RetryPolicy(initialDelay, delay, maxDelay, multiplier, jitter, attemptTimeout,
+                maxDuration.plus(attemptTimeout.minus(this.attemptTimeout)), retryOn);
+    }
+
+    private Duration getDelay(int attempt) {
+        double exponentialDelay = Math.min(delay.toMillis() * Math.pow(multiplier, attempt - 1), maxDelay.toMillis());
+        double jitterFactor = jitter > 0 ? ThreadLocalRandom.current().nextDouble(1 - jitter, 1 + jitter) : 1;
+
+        return Duration.ofMillis((long) (exponentialDelay * jitterFactor));
+    }
+
+    private static void sleep(Sleeper sleeper, Duration duration, long deadline) throws InterruptedException {
+        long sleepNanos = Math.min(duration.toNanos(), deadline - System.nanoTime());
+        if (sleepNanos > 0) {
+            sleeper.sleep(Duration.ofNanos(sleepNanos));
+        }
+    }
+
+    /**
+     * Retries the transient errors: server errors, rate limiting and connection errors.
+     * A 404 or any other client error won't be fixed by retrying.
+     * <p>
+     * The whole cause chain is inspected as the IO errors are often wrapped, for instance in a {@code GHException} or an
+     * {@code UncheckedIOException}.
+     */
+    static boolean isRetryable(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GHFileNotFoundException) {
+                return false;
+            }
+            if (cause instanceof HttpException) {
+                int responseCode = ((HttpException) cause).getResponseCode();
+                // -1 means we didn't get any response
+                return responseCode <= 0 || responseCode >= 500 || responseCode == 429;
+            }
+        }
+
+        return hasCause(throwable, IOException.class);
+    }
+
+    static boolean hasCause(Throwable throwable, Class<? extends Throwable> type) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static final class Outcome {
+
+        private static final Outcome MET = new Outcome(true, null);
+
+        private final boolean met;
+        private final Throwable failure;
+
+        private Outcome(Throwable failure) {
+            this(false, failure);
+        }
+
+        private Outcome(boolean met, Throwable failure) {
+            this.met = met;
+            this.failure = failure;
+        }
+
+        boolean isMet() {
+            return met;
+        }
+
+        /**
+         * @return the error of the last attempt if we gave up after it failed, empty if it timed out or if the condition
+         *         was simply not met
+         */
+        Optional<Throwable> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+    }
+
+    /**
+     * A condition that can be aborted when an attempt times out, for instance by closing the streams it reads from.
+     */
+    interface Abortable {
+
+        void abort();
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+
+        void sleep(Duration duration) throws InterruptedException;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static class Builder {
+
+        private Duration initialDelay = Duration.ZERO;
+        private Duration delay = Duration.ofSeconds(1);
+        private Duration maxDelay = Duration.ofMinutes(1);
+        private double multiplier = 2;
+        private double jitter = 0.2;
+        private Duration attemptTimeout = Duration.ofMinutes(1);
+        private Duration maxDuration = Duration.ofMinutes(5);
+        private Predicate<Throwable> retryOn = RetryPolicy::isRetryable;
+
+        Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        Builder delay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        Builder attemptTimeout(Duration attemptTimeout) {
+            this.attemptTimeout = attemptTimeout;
+            return this;
+        }
+
+        Builder maxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+            return this;
+        }
+
+        Builder retryOn(Predicate<Throwable> retryOn) {
+            this.retryOn = retryOn;
+            return this;
+        }
+
+        RetryPolicy build() {
+            return new RetryPolicy(initialDelay, delay, maxDelay, multiplier, jitter, attemptTimeout, maxDuration, retryOn);
+        }
+    }
+}
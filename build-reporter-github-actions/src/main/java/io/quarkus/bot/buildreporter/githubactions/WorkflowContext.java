@@ -42,6 +42,16 @@ public class WorkflowContext {
         this.htmlUrl = htmlUrl;
     }
 
+    /**
+     * For the tests and the benchmarks, which don't have access to GitHub.
+     */
+    WorkflowContext(String repository, String type, String logContext, String htmlUrl) {
+        this.repository = repository;
+        this.type = type;
+        this.logContext = logContext;
+        this.htmlUrl = htmlUrl;
+    }
+
     public String getRepository() {
         return repository;
     }
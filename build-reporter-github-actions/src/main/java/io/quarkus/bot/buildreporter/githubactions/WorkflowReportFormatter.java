@@ -1,10 +1,13 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
+import java.util.Optional;
+
 import jakarta.enterprise.context.ApplicationScoped;
 
 import org.kohsuke.github.GHCheckRun;
 
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJobIncludeStrategy;
 import io.quarkus.qute.CheckedTemplate;
 import io.quarkus.qute.TemplateExtension;
@@ -13,6 +16,8 @@ import io.quarkus.qute.TemplateInstance;
 @ApplicationScoped
 public class WorkflowReportFormatter {
 
+    static final String JOB_FAILURES_SEPARATOR = "\n---\n\n";
+
     public String getCheckRunReportSummary(WorkflowReport report, WorkflowContext workflowContext, boolean artifactsAvailable,
             WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy) {
         return Templates.checkRunReportSummary(report, workflowContext, artifactsAvailable, workflowReportJobIncludeStrategy)
@@ -21,22 +26,147 @@ public class WorkflowReportFormatter {
 
     public String getCheckRunReport(WorkflowReport report, boolean develocityEnabled, String develocityUrl,
             boolean includeStackTraces, boolean includeFailureLinks) {
-        return Templates.checkRunReport(report, develocityEnabled, develocityUrl, includeStackTraces, includeFailureLinks)
+        ReportDetailLevel detailLevel = ReportDetailLevel.of(includeStackTraces, includeFailureLinks);
+        return getCheckRunReportTemplate(new ReportFragments(this, report), develocityEnabled, develocityUrl, detailLevel)
+                .render();
+    }
+
+    /**
+     * @return the check run report or an empty optional if it is longer than {@code maxLength}, in which case the rendering
+     *         is aborted as soon as the limit is crossed
+     */
+    Optional<String> getCheckRunReport(ReportFragments reportFragments, boolean develocityEnabled, String develocityUrl,
+            ReportDetailLevel detailLevel, int maxLength) {
+        return render(getCheckRunReportTemplate(reportFragments, develocityEnabled, develocityUrl, detailLevel), maxLength);
+    }
+
+    private static Optional<String> render(TemplateInstance templateInstance, int maxLength) {
+        LengthLimitedConsumer consumer = new LengthLimitedConsumer(maxLength);
+        try {
+            templateInstance.consume(consumer)
+                    .toCompletableFuture()
+                    .join();
+        } catch (RuntimeException e) {
+            if (LengthLimitedConsumer.isLengthLimitExceeded(e)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+        return Optional.of(consumer.toString());
+    }
+
+    private static TemplateInstance getCheckRunReportTemplate(ReportFragments reportFragments, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel) {
+        return Templates.checkRunReport(reportFragments.getReport(), develocityEnabled, develocityUrl,
+                detailLevel.includeStackTraces(), detailLevel.includeFailureLinks(),
+                reportFragments.getCheckRunFailures(develocityEnabled, develocityUrl, detailLevel));
+    }
+
+    /**
+     * @param expandDuplicates whether the failures already reported in another job are rendered in full, it is needed when
+     *        the other job is not on the same page
+     */
+    String getCheckRunReportJobFailures(WorkflowReport report, WorkflowReportJob job, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel, boolean expandDuplicates) {
+        return Templates.checkRunReportJobFailures(report, job, develocityEnabled, develocityUrl,
+                detailLevel.includeStackTraces(), detailLevel.includeFailureLinks(), expandDuplicates)
                 .render();
     }
 
+    /**
+     * Renders the section of the check run report of a job whose failures are reported in a dedicated check run.
+     */
+    String getCheckRunReportJobCheckRun(WorkflowReportJob job, GHCheckRun checkRun) {
+        return Templates.checkRunReportJobCheckRun(job, checkRun).render();
+    }
+
+    String getCheckRunJobReportSummary(WorkflowReport report, WorkflowReportJob job, WorkflowContext workflowContext) {
+        return Templates.checkRunJobReportSummary(report, job, workflowContext).render();
+    }
+
+    String getCheckRunJobReport(ReportFragments reportFragments, WorkflowReportJob job, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel) {
+        return getCheckRunJobReportTemplate(reportFragments, job, develocityEnabled, develocityUrl, detailLevel).render();
+    }
+
+    /**
+     * @return the check run report of the job or an empty optional if it is longer than {@code maxLength}, in which case
+     *         the rendering is aborted as soon as the limit is crossed
+     */
+    Optional<String> getCheckRunJobReport(ReportFragments reportFragments, WorkflowReportJob job, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel, int maxLength) {
+        return render(getCheckRunJobReportTemplate(reportFragments, job, develocityEnabled, develocityUrl, detailLevel),
+                maxLength);
+    }
+
+    private static TemplateInstance getCheckRunJobReportTemplate(ReportFragments reportFragments, WorkflowReportJob job,
+            boolean develocityEnabled, String develocityUrl, ReportDetailLevel detailLevel) {
+        return Templates.checkRunJobReport(detailLevel.includeStackTraces(), detailLevel.includeFailureLinks(),
+                reportFragments.getJobCheckRunFailures(job, develocityEnabled, develocityUrl, detailLevel));
+    }
+
     public String getReportComment(WorkflowReport report, boolean artifactsAvailable, GHCheckRun checkRun,
             String messageIdActive, String workflowRunId, String buildScansCheckRunMarker,
             boolean develocityEnabled, String develocityUrl, boolean indicateSuccess, boolean hasOtherPendingCheckRuns,
             boolean includeStackTraces, boolean includeFailureLinks,
             WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy) {
+        ReportDetailLevel detailLevel = ReportDetailLevel.of(includeStackTraces, includeFailureLinks);
+
+        String failures = new ReportFragments(this, report).getCommentFailures(checkRun, develocityEnabled, develocityUrl,
+                detailLevel);
+
+        StringBuilder elisionNotice = new StringBuilder();
+        if (!detailLevel.includeStackTraces()) {
+            elisionNotice.append("> [!WARNING]\n"
+                    + "> Unable to include the stracktraces as the report was too long. "
+                    + "See annotations below for the details.\n\n");
+        }
+        if (!detailLevel.includeFailureLinks()) {
+            elisionNotice.append("> [!WARNING]\n"
+                    + "> Unable to include the failure links as the report was too long. "
+                    + "See annotations below for the details.\n\n");
+        }
+
+        return getReportComment(report, artifactsAvailable, checkRun, messageIdActive, workflowRunId,
+                buildScansCheckRunMarker, develocityEnabled, develocityUrl, indicateSuccess, hasOtherPendingCheckRuns,
+                includeStackTraces, workflowReportJobIncludeStrategy, failures, elisionNotice.toString());
+    }
+
+    /**
+     * Renders the comment around the failures of the jobs, which are rendered separately so that the level of detail can be
+     * adjusted for each job.
+     *
+     * @param includeStackTraces whether to include the stack traces of the flaky tests
+     * @param failures the failures of the jobs, rendered with {@link ReportFragments}
+     * @param elisionNotice the notice explaining what was left out of the report, if anything
+     */
+    String getReportComment(WorkflowReport report, boolean artifactsAvailable, GHCheckRun checkRun,
+            String messageIdActive, String workflowRunId, String buildScansCheckRunMarker,
+            boolean develocityEnabled, String develocityUrl, boolean indicateSuccess, boolean hasOtherPendingCheckRuns,
+            boolean includeStackTraces, WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy,
+            String failures, String elisionNotice) {
         return Templates
                 .commentReport(report, artifactsAvailable, checkRun, messageIdActive, workflowRunId, buildScansCheckRunMarker,
                         develocityEnabled, develocityUrl, indicateSuccess, hasOtherPendingCheckRuns,
-                        includeStackTraces, includeFailureLinks, workflowReportJobIncludeStrategy)
+                        includeStackTraces, workflowReportJobIncludeStrategy, failures, elisionNotice)
+                .render();
+    }
+
+    String getReportCommentJobFailures(WorkflowReportJob job, GHCheckRun checkRun, boolean develocityEnabled,
+            String develocityUrl, ReportDetailLevel detailLevel) {
+        return Templates.commentReportJobFailures(job, checkRun, develocityEnabled, develocityUrl,
+                detailLevel.includeStackTraces(), detailLevel.includeFailureLinks())
                 .render();
     }
 
+    /**
+     * Renders the header of a job whose failures couldn't be included in the comment, so that the links of the failing
+     * jobs table still lead somewhere.
+     */
+    String getReportCommentJobFailuresOmitted(WorkflowReportJob job, GHCheckRun checkRun) {
+        return Templates.commentReportJobFailuresOmitted(job, checkRun).render();
+    }
+
     @CheckedTemplate
     private static class Templates {
 
@@ -45,13 +175,31 @@ public class WorkflowReportFormatter {
 
         public static native TemplateInstance checkRunReport(WorkflowReport report,
                 boolean develocityEnabled, String develocityUrl,
-                boolean includeStackTraces, boolean includeFailureLinks);
+                boolean includeStackTraces, boolean includeFailureLinks, String failures);
+
+        public static native TemplateInstance checkRunReportJobFailures(WorkflowReport report, WorkflowReportJob job,
+                boolean develocityEnabled, String develocityUrl,
+                boolean includeStackTraces, boolean includeFailureLinks, boolean expandDuplicates);
+
+        public static native TemplateInstance checkRunReportJobCheckRun(WorkflowReportJob job, GHCheckRun checkRun);
+
+        public static native TemplateInstance checkRunJobReportSummary(WorkflowReport report, WorkflowReportJob job,
+                WorkflowContext workflowContext);
+
+        public static native TemplateInstance checkRunJobReport(boolean includeStackTraces, boolean includeFailureLinks,
+                String failures);
 
         public static native TemplateInstance commentReport(WorkflowReport report, boolean artifactsAvailable,
                 GHCheckRun checkRun, String messageIdActive, String workflowRunId, String buildScansCheckRunMarker,
                 boolean develocityEnabled, String develocityUrl, boolean indicateSuccess, boolean hasOtherPendingCheckRuns,
-                boolean includeStackTraces, boolean includeFailureLinks,
-                WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy);
+                boolean includeStackTraces, WorkflowReportJobIncludeStrategy workflowReportJobIncludeStrategy,
+                String failures, String elisionNotice);
+
+        public static native TemplateInstance commentReportJobFailures(WorkflowReportJob job, GHCheckRun checkRun,
+                boolean develocityEnabled, String develocityUrl,
+                boolean includeStackTraces, boolean includeFailureLinks);
+
+        public static native TemplateInstance commentReportJobFailuresOmitted(WorkflowReportJob job, GHCheckRun checkRun);
     }
 
     @TemplateExtension
@@ -1,10 +1,13 @@
 package io.quarkus.bot.buildreporter.githubactions;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -12,6 +15,13 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -19,10 +29,6 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.maven.plugin.surefire.log.api.NullConsoleLogger;
-import org.apache.maven.plugins.surefire.report.ReportTestCase;
-import org.apache.maven.plugins.surefire.report.ReportTestSuite;
-import org.apache.maven.plugins.surefire.report.SurefireReportParser;
 import org.jboss.logging.Logger;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GHWorkflowJob;
@@ -30,16 +36,19 @@ import org.kohsuke.github.GHWorkflowJob.Step;
 import org.kohsuke.github.GHWorkflowRun;
 import org.kohsuke.github.GHWorkflowRun.Conclusion;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import io.quarkus.bot.build.reporting.model.BuildReport;
 import io.quarkus.bot.build.reporting.model.ProjectReport;
 import io.quarkus.bot.buildreporter.githubactions.BuildReports.TestResultsPath;
+import io.quarkus.bot.buildreporter.githubactions.report.FailureFingerprint;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReport;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportFlakyTestCase;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportJob;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
 import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportTestCase;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportTestCounts;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestSuiteResult;
 import io.quarkus.bot.buildreporter.githubactions.urlshortener.UrlShortener;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
@@ -48,7 +57,6 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
 public class WorkflowRunAnalyzer {
 
     private static final Logger LOG = Logger.getLogger(WorkflowRunAnalyzer.class);
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final BuildReport EMPTY_BUILD_REPORT = new BuildReport();
 
     @Inject
@@ -69,6 +77,20 @@ public class WorkflowRunAnalyzer {
             Set<String> ignoredFlakyTests,
             List<GHWorkflowJob> jobs,
             Map<String, Optional<BuildReports>> buildReportsMap) throws IOException {
+        return getReport(workflowName, workflowRun, workflowContext,
+                BuildReporterConfig.builder().ignoredFlakyTests(ignoredFlakyTests).build(), jobs, buildReportsMap, false);
+    }
+
+    /**
+     * @param analysisSkipped whether the build reports were not analyzed because the analysis couldn't be admitted
+     */
+    public Optional<WorkflowReport> getReport(String workflowName,
+            GHWorkflowRun workflowRun,
+            WorkflowContext workflowContext,
+            BuildReporterConfig buildReporterConfig,
+            List<GHWorkflowJob> jobs,
+            Map<String, Optional<BuildReports>> buildReportsMap,
+            boolean analysisSkipped) throws IOException {
         if (jobs.isEmpty()) {
             LOG.error(workflowContext.getLogContext() + " - No jobs found");
             return Optional.empty();
@@ -77,58 +99,62 @@ public class WorkflowRunAnalyzer {
         GHRepository workflowRunRepository = workflowRun.getRepository();
         String sha = workflowRun.getHeadSha();
 
-        List<WorkflowReportJob> workflowReportJobs = new ArrayList<>();
-
+        // the jobs are analyzed concurrently under an overall deadline so that a pathological job doesn't delay the report
+        // for all the others, the futures are kept in the order of the jobs so that the report is deterministic
+        Duration analysisTimeout = buildReporterConfig.getAnalysisTimeout();
+        long deadline = System.nanoTime() + analysisTimeout.toNanos();
+        // a test failing the same way in several jobs is only shortened once
+        Map<String, FailureDetails> failureDetailsCache = new ConcurrentHashMap<>();
+        // the class names, failure types... are repeated all over the test results
+        StringPool stringPool = new StringPool();
+        Set<String> ignoredFlakyTests = buildReporterConfig.getIgnoredFlakyTests();
+        // the jobs and the modules need separate pools as a job waits for its modules
+        ExecutorService jobAnalysisExecutor = BuildReporterExecutors.newFixedThreadPool(
+                buildReporterConfig.getJobParallelism(), "job-analysis");
+        ExecutorService moduleAnalysisExecutor = BuildReporterExecutors.newFixedThreadPool(
+                buildReporterConfig.getModuleParallelism(), "module-analysis");
+        Map<GHWorkflowJob, Future<WorkflowReportJob>> jobFutures = new LinkedHashMap<>();
         for (GHWorkflowJob job : jobs) {
             if (job.getConclusion() != Conclusion.FAILURE && job.getConclusion() != Conclusion.CANCELLED
                     && job.getConclusion() != Conclusion.SUCCESS) {
-                workflowReportJobs.add(new WorkflowReportJob(job.getName(), workflowJobLabeller.label(job.getName()),
+                jobFutures.put(job, CompletableFuture.completedFuture(new WorkflowReportJob(job.getName(),
+                        workflowJobLabeller.label(job.getName()),
                         null, job.getConclusion(), null, null, null, null,
-                        EMPTY_BUILD_REPORT, Collections.emptyList(), false));
+                        EMPTY_BUILD_REPORT, Collections.emptyList(), false, false, false)));
                 continue;
             }
 
-            Optional<BuildReports> buildReportsOptional = buildReportsMap.get(job.getName());
-
-            BuildReport buildReport = EMPTY_BUILD_REPORT;
-            String gradleBuildScanUrl = null;
-            List<WorkflowReportModule> modules = Collections.emptyList();
-            boolean errorDownloadingBuildReports = false;
-            if (buildReportsOptional != null) {
-                if (buildReportsOptional.isPresent()) {
-                    BuildReports buildReports = buildReportsOptional.get();
-                    if (!buildReports.getBuildReportPaths().isEmpty()) {
-                        buildReport = getBuildReport(workflowContext, buildReports.getBuildReportPaths());
-                    }
-                    if (buildReports.getGradleBuildScanUrlPath() != null) {
-                        try {
-                            gradleBuildScanUrl = Files.readString(buildReports.getGradleBuildScanUrlPath()).trim();
-                        } catch (Exception e) {
-                            LOG.warn("Unable to read file containing Gradle Build Scan URL", e);
-                        }
-                    }
+            jobFutures.put(job, jobAnalysisExecutor.submit(() -> getJob(workflowContext, job, sha, ignoredFlakyTests,
+                    buildReportsMap.get(job.getName()), failureDetailsCache, stringPool, moduleAnalysisExecutor)));
+        }
 
-                    modules = getModules(workflowContext, buildReport, buildReports.getJobDirectory(),
-                            buildReports.getTestResultsPaths(), ignoredFlakyTests,
-                            sha);
-                } else {
-                    errorDownloadingBuildReports = true;
-                    LOG.error(workflowContext.getLogContext() + " - Unable to analyze build report for job "
-                            + job.getName() + " - see exceptions above");
+        List<WorkflowReportJob> workflowReportJobs = new ArrayList<>();
+        try {
+            for (Entry<GHWorkflowJob, Future<WorkflowReportJob>> jobFutureEntry : jobFutures.entrySet()) {
+                GHWorkflowJob job = jobFutureEntry.getKey();
+                Future<WorkflowReportJob> jobFuture = jobFutureEntry.getValue();
+
+                try {
+                    workflowReportJobs.add(jobFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    jobFuture.cancel(true);
+                    LOG.error(workflowContext.getLogContext() + " - Analysis of job " + job.getName() + " timed out after "
+                            + analysisTimeout);
+                    workflowReportJobs.add(getIncompleteJob(job, sha, false, true));
+                } catch (ExecutionException e) {
+                    LOG.error(workflowContext.getLogContext() + " - Unable to analyze job " + job.getName(), e.getCause());
+                    workflowReportJobs.add(getIncompleteJob(job, sha, true, false));
                 }
             }
-
-            workflowReportJobs.add(new WorkflowReportJob(job.getName(),
-                    workflowJobLabeller.label(job.getName()),
-                    getFailuresAnchor(job.getId()),
-                    job.getConclusion(),
-                    getFailingStep(job.getSteps()),
-                    getJobUrl(job),
-                    getRawLogsUrl(job, workflowRun.getHeadSha()),
-                    gradleBuildScanUrl,
-                    buildReport,
-                    modules,
-                    errorDownloadingBuildReports));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while analyzing the jobs of " + workflowContext.getLogContext());
+        } finally {
+            for (Future<WorkflowReportJob> jobFuture : jobFutures.values()) {
+                jobFuture.cancel(true);
+            }
+            jobAnalysisExecutor.shutdownNow();
+            moduleAnalysisExecutor.shutdownNow();
         }
 
         if (workflowReportJobs.isEmpty()) {
@@ -138,30 +164,100 @@ public class WorkflowRunAnalyzer {
 
         WorkflowReport report = new WorkflowReport(workflowName, sha, workflowReportJobs,
                 workflowRunRepository.getFullName().equals(workflowContext.getRepository()),
-                workflowRun.getConclusion(), workflowRun.getHtmlUrl().toString());
+                workflowRun.getConclusion(), workflowRun.getHtmlUrl().toString(), analysisSkipped);
 
         return Optional.of(report);
     }
 
-    private static BuildReport getBuildReport(WorkflowContext workflowContext, List<Path> buildReportPaths) {
-        if (buildReportPaths.isEmpty()) {
+    private WorkflowReportJob getJob(WorkflowContext workflowContext, GHWorkflowJob job, String sha,
+            Set<String> ignoredFlakyTests, Optional<BuildReports> buildReportsOptional,
+            Map<String, FailureDetails> failureDetailsCache, StringPool stringPool, ExecutorService moduleAnalysisExecutor) {
+        BuildReport buildReport = EMPTY_BUILD_REPORT;
+        String gradleBuildScanUrl = null;
+        List<WorkflowReportModule> modules = Collections.emptyList();
+        boolean errorDownloadingBuildReports = false;
+        if (buildReportsOptional != null) {
+            if (buildReportsOptional.isPresent()) {
+                BuildReports buildReports = buildReportsOptional.get();
+                if (!buildReports.getBuildReportPaths().isEmpty() || !buildReports.getBuildReports().isEmpty()) {
+                    buildReport = getBuildReport(workflowContext, buildReports.getBuildReportPaths(),
+                            buildReports.getBuildReports());
+                }
+                if (buildReports.getGradleBuildScanUrl() != null) {
+                    gradleBuildScanUrl = buildReports.getGradleBuildScanUrl();
+                } else if (buildReports.getGradleBuildScanUrlPath() != null) {
+                    try {
+                        gradleBuildScanUrl = Files.readString(buildReports.getGradleBuildScanUrlPath()).trim();
+                    } catch (Exception e) {
+                        LOG.warn("Unable to read file containing Gradle Build Scan URL", e);
+                    }
+                }
+
+                modules = getModules(workflowContext, buildReport, buildReports.getJobDirectory(),
+                        buildReports.getTestResultsPaths(), ignoredFlakyTests,
+                        sha, failureDetailsCache, stringPool, moduleAnalysisExecutor);
+            } else {
+                errorDownloadingBuildReports = true;
+                LOG.error(workflowContext.getLogContext() + " - Unable to analyze build report for job "
+                        + job.getName() + " - see exceptions above");
+            }
+        }
+
+        return new WorkflowReportJob(job.getName(),
+                workflowJobLabeller.label(job.getName()),
+                getFailuresAnchor(job.getId()),
+                job.getConclusion(),
+                getFailingStep(job.getSteps()),
+                getJobUrl(job),
+                getRawLogsUrl(job, sha),
+                gradleBuildScanUrl,
+                buildReport,
+                modules,
+                errorDownloadingBuildReports,
+                false,
+                false);
+    }
+
+    /**
+     * The job is reported without its build reports, so that we at least point to the logs.
+     */
+    private WorkflowReportJob getIncompleteJob(GHWorkflowJob job, String sha, boolean analysisFailed,
+            boolean analysisTimedOut) {
+        return new WorkflowReportJob(job.getName(),
+                workflowJobLabeller.label(job.getName()),
+                getFailuresAnchor(job.getId()),
+                job.getConclusion(),
+                getFailingStep(job.getSteps()),
+                getJobUrl(job),
+                getRawLogsUrl(job, sha),
+                null,
+                EMPTY_BUILD_REPORT,
+                Collections.emptyList(),
+                false,
+                analysisFailed,
+                analysisTimedOut);
+    }
+
+    private static BuildReport getBuildReport(WorkflowContext workflowContext, List<Path> buildReportPaths,
+            List<BuildReport> buildReports) {
+        if (buildReportPaths.isEmpty() && buildReports.isEmpty()) {
             return new BuildReport();
         }
 
-        BuildReport mergedReport = new BuildReport();
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        for (BuildReport buildReport : buildReports) {
+            buildReportMerger.merge(buildReport);
+        }
         for (Path buildReportPath : buildReportPaths) {
             try {
-                BuildReport buildReport = OBJECT_MAPPER.readValue(buildReportPath.toFile(), BuildReport.class);
-                for (ProjectReport projectReport : buildReport.getProjectReports()) {
-                    mergedReport.addProjectReport(projectReport);
-                }
+                buildReportMerger.merge(buildReportPath);
             } catch (Exception e) {
                 LOG.error(workflowContext.getLogContext() + " - Unable to deserialize "
                         + buildReportPath, e);
             }
         }
 
-        return mergedReport;
+        return buildReportMerger.build();
     }
 
     private List<WorkflowReportModule> getModules(
@@ -170,95 +266,137 @@ public class WorkflowRunAnalyzer {
             Path jobDirectory,
             Set<TestResultsPath> testResultsPaths,
             Set<String> ignoredFlakyTests,
-            String sha) {
-        List<WorkflowReportModule> modules = new ArrayList<>();
-
+            String sha,
+            Map<String, FailureDetails> failureDetailsCache,
+            StringPool stringPool,
+            ExecutorService moduleAnalysisExecutor) {
         Map<String, ModuleReports> moduleReportsMap = mapModuleReports(buildReport, testResultsPaths, jobDirectory);
 
+        // the modules are analyzed in parallel but the futures are kept in the order of the sorted map
+        // so that the report is deterministic
+        Map<String, Future<WorkflowReportModule>> moduleFutures = new LinkedHashMap<>();
         for (Entry<String, ModuleReports> moduleReportsEntry : moduleReportsMap.entrySet()) {
-            String moduleName = moduleReportsEntry.getKey();
-            ModuleReports moduleReports = moduleReportsEntry.getValue();
+            moduleFutures.put(moduleReportsEntry.getKey(), moduleAnalysisExecutor.submit(() -> getModule(workflowContext,
+                    moduleReportsEntry.getKey(), moduleReportsEntry.getValue(), ignoredFlakyTests, sha,
+                    failureDetailsCache, stringPool)));
+        }
 
-            List<ReportTestSuite> reportTestSuites = new ArrayList<>();
-            List<WorkflowReportTestCase> workflowReportTestCases = new ArrayList<>();
-            List<WorkflowReportFlakyTestCase> workflowReportFlakyTestCases = new ArrayList<>();
-            for (TestResultsPath testResultPath : moduleReports.getTestResultsPaths()) {
+        List<WorkflowReportModule> modules = new ArrayList<>();
+        try {
+            for (Entry<String, Future<WorkflowReportModule>> moduleFutureEntry : moduleFutures.entrySet()) {
                 try {
-                    SurefireReportParser surefireReportsParser = new SurefireReportParser(
-                            Collections.singletonList(testResultPath.getPath().toFile()),
-                            new NullConsoleLogger());
-                    reportTestSuites.addAll(surefireReportsParser.parseXMLReportFiles());
-                    workflowReportTestCases.addAll(surefireReportsParser.getFailureDetails(reportTestSuites).stream()
-                            .filter(rtc -> !rtc.hasSkipped())
-                            .map(rtc -> new WorkflowReportTestCase(
-                                    WorkflowUtils.getFilePath(moduleName, rtc.getFullClassName()),
-                                    rtc,
-                                    stackTraceShortener.shorten(rtc.getFailureDetail(), 1000, 8),
-                                    getFailureUrl(workflowContext.getRepository(), sha, moduleName, rtc),
-                                    urlShortener.shorten(getFailureUrl(workflowContext.getRepository(), sha, moduleName, rtc))))
-                            .collect(Collectors.toList()));
-
-                    workflowReportFlakyTestCases.addAll(getFlakeDetails(reportTestSuites).stream()
-                            .filter(rtc -> !rtc.hasSkipped())
-                            .filter(rtc -> !ignoredFlakyTests.contains(rtc.getFullName())
-                                    && !ignoredFlakyTests.contains(rtc.getFullClassName()))
-                            .map(rtc -> new WorkflowReportFlakyTestCase(
-                                    WorkflowUtils.getFilePath(moduleName, rtc.getFullClassName()),
-                                    rtc,
-                                    Stream.concat(
-                                            rtc.getFlakyErrors().stream()
-                                                    .map(fe -> new WorkflowReportFlakyTestCase.Flake(
-                                                            stackTraceShortener.shorten(fe.getMessage(), 1000, 5),
-                                                            fe.getType(), fe.getStackTrace(),
-                                                            stackTraceShortener.shorten(fe.getStackTrace(), 1000, 8))),
-                                            rtc.getFlakyFailures().stream()
-                                                    .map(fe -> new WorkflowReportFlakyTestCase.Flake(
-                                                            stackTraceShortener.shorten(fe.getMessage(), 1000, 5),
-                                                            fe.getType(), fe.getStackTrace(),
-                                                            stackTraceShortener.shorten(fe.getStackTrace(), 1000, 8))))
-                                            .collect(Collectors.toList())))
-                            .collect(Collectors.toList()));
-                } catch (Exception e) {
-                    LOG.error(workflowContext.getLogContext() + " - Unable to parse test results for file "
-                            + testResultPath.getPath(), e);
+                    WorkflowReportModule module = moduleFutureEntry.getValue().get();
+                    if (module.hasReportedFailures() || module.hasFlakyTests()) {
+                        modules.add(module);
+                    }
+                } catch (ExecutionException e) {
+                    LOG.error(workflowContext.getLogContext() + " - Unable to analyze module "
+                            + moduleFutureEntry.getKey(), e.getCause());
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn(workflowContext.getLogContext() + " - Interrupted while analyzing the modules");
+        } finally {
+            for (Future<WorkflowReportModule> moduleFuture : moduleFutures.values()) {
+                moduleFuture.cancel(true);
+            }
+        }
 
-            Collections.sort(workflowReportTestCases);
-            Collections.sort(workflowReportFlakyTestCases);
-
-            WorkflowReportModule module = new WorkflowReportModule(
-                    moduleName,
-                    moduleReports.getProjectReport(),
-                    moduleReports.getProjectReport() != null ? firstLines(moduleReports.getProjectReport().getError(), 5)
-                            : null,
-                    reportTestSuites,
-                    workflowReportTestCases,
-                    workflowReportFlakyTestCases);
+        return modules;
+    }
 
-            if (module.hasReportedFailures() || module.hasFlakyTests()) {
-                modules.add(module);
+    WorkflowReportModule getModule(
+            WorkflowContext workflowContext,
+            String moduleName,
+            ModuleReports moduleReports,
+            Set<String> ignoredFlakyTests,
+            String sha,
+            Map<String, FailureDetails> failureDetailsCache,
+            StringPool stringPool) {
+        WorkflowReportTestCounts testCounts = WorkflowReportTestCounts.EMPTY;
+        List<WorkflowReportTestCase> workflowReportTestCases = new ArrayList<>();
+        List<WorkflowReportFlakyTestCase> workflowReportFlakyTestCases = new ArrayList<>();
+        for (TestResultsPath testResultPath : moduleReports.getTestResultsPaths()) {
+            try {
+                // each file is processed exactly once and we only keep the counters and the failures,
+                // so that the parsed test suites can be garbage collected right away
+                List<TestSuiteResult> pathTestSuiteResults = testResultPath.getTestSuiteResults(stringPool);
+                testCounts = testCounts.add(pathTestSuiteResults);
+
+                workflowReportTestCases.addAll(getFailureDetails(pathTestSuiteResults).stream()
+                        .filter(rtc -> !rtc.hasSkipped())
+                        .map(rtc -> {
+                            String fingerprint = FailureFingerprint.of(rtc.getFullName(), rtc.getFailureDetail());
+                            FailureDetails failureDetails = getCachedFailureDetails(failureDetailsCache, fingerprint,
+                                    workflowContext, sha, moduleName, rtc);
+                            return new WorkflowReportTestCase(
+                                    stringPool.intern(WorkflowUtils.getFilePath(moduleName, rtc.getFullClassName())),
+                                    rtc,
+                                    failureDetails.abbreviatedFailureDetail,
+                                    failureDetails.failureUrl,
+                                    failureDetails.shortenedFailureUrl,
+                                    fingerprint);
+                        })
+                        .collect(Collectors.toList()));
+
+                workflowReportFlakyTestCases.addAll(getFlakeDetails(pathTestSuiteResults).stream()
+                        .filter(rtc -> !rtc.hasSkipped())
+                        .filter(rtc -> !ignoredFlakyTests.contains(rtc.getFullName())
+                                && !ignoredFlakyTests.contains(rtc.getFullClassName()))
+                        .map(rtc -> new WorkflowReportFlakyTestCase(
+                                stringPool.intern(WorkflowUtils.getFilePath(moduleName, rtc.getFullClassName())),
+                                rtc,
+                                Stream.concat(
+                                        rtc.getFlakyErrors().stream()
+                                                .map(fe -> new WorkflowReportFlakyTestCase.Flake(
+                                                        stringPool.intern(
+                                                                stackTraceShortener.shorten(fe.getMessage(), 1000, 5)),
+                                                        fe.getType(), fe.getStackTrace(),
+                                                        stackTraceShortener.shorten(fe.getStackTrace(), 1000, 8))),
+                                        rtc.getFlakyFailures().stream()
+                                                .map(fe -> new WorkflowReportFlakyTestCase.Flake(
+                                                        stringPool.intern(
+                                                                stackTraceShortener.shorten(fe.getMessage(), 1000, 5)),
+                                                        fe.getType(), fe.getStackTrace(),
+                                                        stackTraceShortener.shorten(fe.getStackTrace(), 1000, 8))))
+                                        .collect(Collectors.toList())))
+                        .collect(Collectors.toList()));
+            } catch (Exception e) {
+                LOG.error(workflowContext.getLogContext() + " - Unable to parse test results for file "
+                        + testResultPath.getPath(), e);
             }
         }
 
-        return modules;
+        Collections.sort(workflowReportTestCases);
+        Collections.sort(workflowReportFlakyTestCases);
+
+        WorkflowReportModule module = new WorkflowReportModule(
+                moduleName,
+                moduleReports.getProjectReport(),
+                moduleReports.getProjectReport() != null ? firstLines(moduleReports.getProjectReport().getError(), 5)
+                        : null,
+                testCounts,
+                workflowReportTestCases,
+                workflowReportFlakyTestCases);
+
+        return module;
     }
 
-    private static Map<String, ModuleReports> mapModuleReports(BuildReport buildReport, Set<TestResultsPath> testResultsPaths,
+    /**
+     * Groups the project reports and the test results paths by module in a single pass over each of them.
+     */
+    static Map<String, ModuleReports> mapModuleReports(BuildReport buildReport, Set<TestResultsPath> testResultsPaths,
             Path jobDirectory) {
-        Set<String> modules = new TreeSet<>();
-        modules.addAll(buildReport.getProjectReports().stream().map(pr -> normalizeModuleName(pr.getBasedir()))
-                .collect(Collectors.toList()));
-        modules.addAll(testResultsPaths.stream().map(trp -> normalizeModuleName(trp.getModuleName(jobDirectory)))
-                .collect(Collectors.toList()));
-
         Map<String, ModuleReports> moduleReports = new TreeMap<>();
-        for (String module : modules) {
-            moduleReports.put(module, new ModuleReports(
-                    buildReport.getProjectReports().stream().filter(pr -> normalizeModuleName(pr.getBasedir()).equals(module))
-                            .findFirst().orElse(null),
-                    testResultsPaths.stream().filter(trp -> normalizeModuleName(trp.getModuleName(jobDirectory)).equals(module))
-                            .collect(Collectors.toCollection(TreeSet::new))));
+        for (ProjectReport projectReport : buildReport.getProjectReports()) {
+            moduleReports.computeIfAbsent(normalizeModuleName(projectReport.getBasedir()), m -> new ModuleReports())
+                    .addProjectReport(projectReport);
+        }
+        for (TestResultsPath testResultsPath : testResultsPaths) {
+            moduleReports.computeIfAbsent(normalizeModuleName(testResultsPath.getModuleName(jobDirectory)),
+                    m -> new ModuleReports())
+                    .addTestResultsPath(testResultsPath);
         }
 
         return moduleReports;
@@ -295,9 +433,9 @@ public class WorkflowRunAnalyzer {
                 "/commit/" + sha + "/checks/" + job.getId() + "/logs");
     }
 
-    private static String getFailureUrl(String repository, String sha, String moduleName, ReportTestCase reportTestCase) {
-        String classPath = reportTestCase.getFullClassName().replace(".", "/");
-        int dollarIndex = reportTestCase.getFullClassName().indexOf('$');
+    private static String getFailureUrl(String repository, String sha, String moduleName, TestCaseResult testCase) {
+        String classPath = testCase.getFullClassName().replace(".", "/");
+        int dollarIndex = testCase.getFullClassName().indexOf('$');
         if (dollarIndex > 0) {
             classPath = classPath.substring(0, dollarIndex);
         }
@@ -305,18 +443,52 @@ public class WorkflowRunAnalyzer {
 
         StringBuilder sb = new StringBuilder();
         sb.append("https://github.com/").append(repository).append("/blob/").append(sha).append("/")
-                .append(WorkflowUtils.getFilePath(moduleName, reportTestCase.getFullClassName()));
-        if (StringUtils.isNotBlank(reportTestCase.getFailureErrorLine())) {
-            sb.append("#L").append(reportTestCase.getFailureErrorLine());
+                .append(WorkflowUtils.getFilePath(moduleName, testCase.getFullClassName()));
+        if (StringUtils.isNotBlank(testCase.getFailureErrorLine())) {
+            sb.append("#L").append(testCase.getFailureErrorLine());
         }
         return sb.toString();
     }
 
-    private static List<ReportTestCase> getFlakeDetails(List<ReportTestSuite> testSuites) {
-        List<ReportTestCase> flakeDetails = new ArrayList<>();
+    private FailureDetails getCachedFailureDetails(Map<String, FailureDetails> failureDetailsCache, String fingerprint,
+            WorkflowContext workflowContext, String sha, String moduleName, TestCaseResult testCase) {
+        // the URL depends on the module so it is part of the key
+        String key = moduleName + "/" + fingerprint;
+
+        FailureDetails failureDetails = failureDetailsCache.get(key);
+        if (failureDetails != null) {
+            return failureDetails;
+        }
+
+        // we don't use computeIfAbsent() as shortening the URL is a remote call,
+        // in the unlikely case of a race, the work is simply done twice
+        String failureUrl = getFailureUrl(workflowContext.getRepository(), sha, moduleName, testCase);
+        failureDetails = new FailureDetails(stackTraceShortener.shorten(testCase.getFailureDetail(), 1000, 8),
+                failureUrl, urlShortener.shorten(failureUrl));
+        FailureDetails existingFailureDetails = failureDetailsCache.putIfAbsent(key, failureDetails);
+
+        return existingFailureDetails != null ? existingFailureDetails : failureDetails;
+    }
+
+    private static List<TestCaseResult> getFailureDetails(List<TestSuiteResult> testSuites) {
+        List<TestCaseResult> failureDetails = new ArrayList<>();
+
+        for (TestSuiteResult suite : testSuites) {
+            for (TestCaseResult tCase : suite.getTestCases()) {
+                if (!tCase.isSuccessful()) {
+                    failureDetails.add(tCase);
+                }
+            }
+        }
+
+        return failureDetails;
+    }
+
+    private static List<TestCaseResult> getFlakeDetails(List<TestSuiteResult> testSuites) {
+        List<TestCaseResult> flakeDetails = new ArrayList<>();
 
-        for (ReportTestSuite suite : testSuites) {
-            for (ReportTestCase tCase : suite.getTestCases()) {
+        for (TestSuiteResult suite : testSuites) {
+            for (TestCaseResult tCase : suite.getTestCases()) {
                 if (tCase.hasFlakes()) {
                     flakeDetails.add(tCase);
                 }
@@ -334,14 +506,20 @@ public class WorkflowRunAnalyzer {
         return string.lines().limit(numberOfLines).collect(Collectors.joining("\n"));
     }
 
-    private static class ModuleReports {
+    static class ModuleReports {
 
-        private final ProjectReport projectReport;
-        private final Set<TestResultsPath> testResultsPaths;
+        private ProjectReport projectReport;
+        private final Set<TestResultsPath> testResultsPaths = new TreeSet<>();
 
-        private ModuleReports(ProjectReport projectReport, Set<TestResultsPath> testResultsPaths) {
-            this.projectReport = projectReport;
-            this.testResultsPaths = testResultsPaths;
+        void addProjectReport(ProjectReport projectReport) {
+            // if there are several reports for the same module, the first one wins
+            if (this.projectReport == null) {
+                this.projectReport = projectReport;
+            }
+        }
+
+        void addTestResultsPath(TestResultsPath testResultsPath) {
+            testResultsPaths.add(testResultsPath);
         }
 
         public ProjectReport getProjectReport() {
@@ -352,4 +530,17 @@ public class WorkflowRunAnalyzer {
             return testResultsPaths;
         }
     }
+
+    static class FailureDetails {
+
+        private final String abbreviatedFailureDetail;
+        private final String failureUrl;
+        private final String shortenedFailureUrl;
+
+        private FailureDetails(String abbreviatedFailureDetail, String failureUrl, String shortenedFailureUrl) {
+            this.abbreviatedFailureDetail = abbreviatedFailureDetail;
+            this.failureUrl = failureUrl;
+            this.shortenedFailureUrl = shortenedFailureUrl;
+        }
+    }
 }
@@ -0,0 +1,301 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHArtifact;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHWorkflowJob;
+import org.kohsuke.github.GHWorkflowRun;
+
+/**
+ * Tracks the {@code workflow_job} completion events so that we don't have to poll the artifacts of a workflow run
+ * once it is completed.
+ * <p>
+ * When a job completes, the artifacts of its workflow run are listed - the listings are coalesced when several jobs
+ * complete in a short period of time - and, if the artifact cache is enabled, the build reports artifacts
+ * are downloaded right away.
+ * When the workflow run completes, a listing might miss some artifacts if it was started before the completion
+ * of the workflow run and, as GitHub doesn't guarantee the order of the events, we can't tell if the last
+ * {@code workflow_job} event has been received. We thus start a new listing right away and wait for it: it is cheap
+ * compared to the polling, and the build reports are usually already prefetched.
+ * If it fails or takes too long, we fall back to polling, and the polling is woken up as soon as a new listing
+ * is available.
+ */
+@Singleton
+class WorkflowRunArtifactsTracker {
+
+    private static final Logger LOG = Logger.getLogger(WorkflowRunArtifactsTracker.class);
+
+    private static final Duration LISTING_DELAY = Duration.ofSeconds(5);
+    private static final Duration EXPIRATION_DELAY = Duration.ofHours(12);
+    private static final Duration COMPLETION_LISTING_TIMEOUT = Duration.ofSeconds(30);
+    private static final int THREADS = 4;
+
+    @Inject
+    BuildReportsArtifactCache buildReportsArtifactCache;
+
+    private final Map<Long, TrackedWorkflowRun> trackedWorkflowRuns = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = BuildReporterExecutors.newScheduledThreadPool(THREADS, "artifacts-tracker");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void jobCompleted(GHRepository repository, GHWorkflowJob workflowJob, BuildReporterConfig buildReporterConfig) {
+        expire();
+
+        TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRuns.computeIfAbsent(workflowJob.getRunId(),
+                id -> new TrackedWorkflowRun(repository, id));
+
+        if (trackedWorkflowRun.jobCompleted(workflowJob.getRunAttempt())) {
+            executor.schedule(() -> listArtifacts(trackedWorkflowRun, buildReporterConfig),
+                    LISTING_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Must be called once the workflow run is completed: the artifacts are listed right away and we wait for the listing.
+     *
+     * @return the artifacts of the workflow run if they have been listed after the completion of the workflow run
+     */
+    Optional<List<GHArtifact>> getArtifacts(GHWorkflowRun workflowRun, BuildReporterConfig buildReporterConfig) {
+        TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRuns.get(workflowRun.getId());
+        if (trackedWorkflowRun == null || !trackedWorkflowRun.isTracked(workflowRun.getRunAttempt())) {
+            return Optional.empty();
+        }
+
+        // we don't compare the listings with the completion date of the workflow run as it comes from the GitHub clock
+        long workflowRunCompletion = System.nanoTime();
+        executor.execute(() -> listArtifacts(trackedWorkflowRun, buildReporterConfig));
+
+        try {
+            return trackedWorkflowRun.awaitArtifactsListedAfter(workflowRunCompletion, COMPLETION_LISTING_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return a sleeper that is woken up as soon as new artifacts are listed for the workflow run
+     */
+    RetryPolicy.Sleeper getSleeper(GHWorkflowRun workflowRun) {
+        return duration -> {
+            TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRuns.get(workflowRun.getId());
+            if (trackedWorkflowRun == null) {
+                TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+                return;
+            }
+
+            trackedWorkflowRun.awaitListing(duration);
+        };
+    }
+
+    void forget(GHWorkflowRun workflowRun) {
+        trackedWorkflowRuns.remove(workflowRun.getId());
+    }
+
+    private void listArtifacts(TrackedWorkflowRun trackedWorkflowRun, BuildReporterConfig buildReporterConfig) {
+        long listingStart = trackedWorkflowRun.startListing();
+
+        try {
+            GHWorkflowRun workflowRun = trackedWorkflowRun.getWorkflowRun();
+
+            if (!buildReporterConfig.getMonitoredWorkflows().contains(workflowRun.getName())) {
+                trackedWorkflowRun.ignore();
+                return;
+            }
+
+            List<GHArtifact> artifacts = workflowRun.listArtifacts().toList();
+            trackedWorkflowRun.artifactsListed(listingStart, artifacts);
+
+            if (buildReporterConfig.isArtifactCacheEnabled()) {
+                prefetch(trackedWorkflowRun, artifacts, buildReporterConfig);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Workflow run " + trackedWorkflowRun.getLogContext() + " - Unable to list the artifacts", e);
+            trackedWorkflowRun.listingFailed(listingStart);
+        }
+    }
+
+    private void prefetch(TrackedWorkflowRun trackedWorkflowRun, List<GHArtifact> artifacts,
+            BuildReporterConfig buildReporterConfig) {
+        for (GHArtifact artifact : WorkflowUtils.getBuildReportsArtifacts(artifacts, trackedWorkflowRun.getRunAttempt())
+                .values()) {
+            if (!trackedWorkflowRun.markPrefetched(artifact)) {
+                continue;
+            }
+
+            try {
+                buildReportsArtifactCache.prefetch(artifact, buildReporterConfig.getArtifactCacheDirectory(),
+                        buildReporterConfig.getArtifactCacheMaxSize());
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Workflow run " + trackedWorkflowRun.getLogContext() + " - Unable to prefetch artifact "
+                        + artifact.getName(), e);
+            }
+        }
+    }
+
+    private void expire() {
+        long expirationLimit = System.nanoTime() - EXPIRATION_DELAY.toNanos();
+        trackedWorkflowRuns.values().removeIf(t -> t.getLastUpdate() - expirationLimit < 0);
+    }
+
+    static class TrackedWorkflowRun {
+
+        private final GHRepository repository;
+        private final long workflowRunId;
+
+        private volatile GHWorkflowRun workflowRun;
+        private long runAttempt;
+        private boolean ignored;
+        private boolean listingScheduled;
+        private long lastUpdate = System.nanoTime();
+        private long lastListingStart;
+        private boolean listingFailed;
+        private long lastFailedListingStart;
+        private long listingCount;
+        private List<GHArtifact> artifacts;
+        private final Set<Long> prefetchedArtifacts = new HashSet<>();
+
+        TrackedWorkflowRun(GHRepository repository, long workflowRunId) {
+            this.repository = repository;
+            this.workflowRunId = workflowRunId;
+        }
+
+        /**
+         * @return true if a listing should be scheduled
+         */
+        synchronized boolean jobCompleted(long runAttempt) {
+            if (runAttempt != this.runAttempt) {
+                // the workflow run has been re-run, what we know is outdated
+                this.runAttempt = runAttempt;
+                this.artifacts = null;
+                this.prefetchedArtifacts.clear();
+            }
+
+            lastUpdate = System.nanoTime();
+
+            if (ignored || listingScheduled) {
+                return false;
+            }
+
+            listingScheduled = true;
+            return true;
+        }
+
+        synchronized long startListing() {
+            // jobs completing from now on will need a new listing
+            listingScheduled = false;
+            return System.nanoTime();
+        }
+
+        synchronized void artifactsListed(long listingStart, List<GHArtifact> artifacts) {
+            if (this.artifacts != null && listingStart - lastListingStart < 0) {
+                // a more recent listing is already there
+                return;
+            }
+
+            this.lastListingStart = listingStart;
+            this.artifacts = artifacts;
+            this.listingCount++;
+            this.lastUpdate = System.nanoTime();
+            notifyAll();
+        }
+
+        synchronized void listingFailed(long listingStart) {
+            // wake up the pollers so that they don't wait for a listing that won't come
+            listingFailed = true;
+            lastFailedListingStart = listingStart;
+            listingCount++;
+            notifyAll();
+        }
+
+        synchronized void ignore() {
+            ignored = true;
+            notifyAll();
+        }
+
+        synchronized boolean isTracked(long runAttempt) {
+            return !ignored && runAttempt == this.runAttempt;
+        }
+
+        /**
+         * @param notBefore the {@link System#nanoTime()} after which the listing must have been started
+         * @return the artifacts or an empty optional if the listing failed or didn't complete in time
+         */
+        synchronized Optional<List<GHArtifact>> awaitArtifactsListedAfter(long notBefore, Duration timeout)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+
+            for (long remainingNanos = timeout.toNanos();; remainingNanos = deadline - System.nanoTime()) {
+                if (ignored || (listingFailed && lastFailedListingStart - notBefore >= 0)) {
+                    return Optional.empty();
+                }
+                if (artifacts != null && lastListingStart - notBefore >= 0) {
+                    return Optional.of(artifacts);
+                }
+                if (remainingNanos <= 0) {
+                    return Optional.empty();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+        }
+
+        private synchronized void awaitListing(Duration duration) throws InterruptedException {
+            long currentListingCount = listingCount;
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            for (long remainingNanos = duration.toNanos(); remainingNanos > 0
+                    && currentListingCount == listingCount; remainingNanos = deadline - System.nanoTime()) {
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+        }
+
+        private synchronized boolean markPrefetched(GHArtifact artifact) {
+            return prefetchedArtifacts.add(artifact.getId());
+        }
+
+        private GHWorkflowRun getWorkflowRun() throws IOException {
+            // we might fetch it twice but it's not worth holding the lock during the call
+            if (workflowRun == null) {
+                workflowRun = repository.getWorkflowRun(workflowRunId);
+            }
+            return workflowRun;
+        }
+
+        private synchronized long getRunAttempt() {
+            return runAttempt;
+        }
+
+        private synchronized long getLastUpdate() {
+            return lastUpdate;
+        }
+
+        private String getLogContext() {
+            return repository.getFullName() + ":" + workflowRunId;
+        }
+    }
+}
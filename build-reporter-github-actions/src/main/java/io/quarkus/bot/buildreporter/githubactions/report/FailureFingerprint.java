@@ -0,0 +1,46 @@
+package io.quarkus.bot.buildreporter.githubactions.report;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies a test failure independently of the job it occurred in,
+ * so that a test failing the same way on all the legs of a matrix is only reported once.
+ * <p>
+ * The failure detail is normalized to ignore what usually differs between the legs: line endings, trailing whitespaces
+ * and identity hash codes.
+ */
+public final class FailureFingerprint {
+
+    private static final Pattern LINE_ENDINGS = Pattern.compile("\r\n?");
+    private static final Pattern TRAILING_WHITESPACES = Pattern.compile("[ \t]+$", Pattern.MULTILINE);
+    private static final Pattern IDENTITY_HASH_CODES = Pattern.compile("@[0-9a-f]{5,}\\b");
+
+    public static String of(String fullName, String failureDetail) {
+        StringBuilder fingerprint = new StringBuilder(fullName);
+        if (failureDetail == null || failureDetail.isBlank()) {
+            return fingerprint.toString();
+        }
+
+        String normalizedFailureDetail = LINE_ENDINGS.matcher(failureDetail).replaceAll("\n");
+        normalizedFailureDetail = TRAILING_WHITESPACES.matcher(normalizedFailureDetail).replaceAll("");
+        normalizedFailureDetail = IDENTITY_HASH_CODES.matcher(normalizedFailureDetail).replaceAll("@");
+
+        try {
+            // the failure details can be large, we don't want to keep them around as keys
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            fingerprint.append('#')
+                    .append(HexFormat.of().formatHex(digest.digest(normalizedFailureDetail.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        return fingerprint.toString();
+    }
+
+    private FailureFingerprint() {
+    }
+}
@@ -1,6 +1,8 @@
 package io.quarkus.bot.buildreporter.githubactions.report;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.kohsuke.github.GHWorkflowRun.Conclusion;
@@ -16,15 +18,31 @@ public class WorkflowReport {
     private final boolean sameRepository;
     private final Conclusion conclusion;
     private final String workflowRunUrl;
+    private final boolean analysisSkipped;
+
+    /**
+     * The first occurrence of each failure, with the job it occurred in.
+     */
+    private final Map<String, FirstFailure> firstFailures = new HashMap<>();
 
     public WorkflowReport(String workflowName, String sha, List<WorkflowReportJob> jobs, boolean sameRepository,
             Conclusion conclusion, String workflowRunUrl) {
+        this(workflowName, sha, jobs, sameRepository, conclusion, workflowRunUrl, false);
+    }
+
+    public WorkflowReport(String workflowName, String sha, List<WorkflowReportJob> jobs, boolean sameRepository,
+            Conclusion conclusion, String workflowRunUrl, boolean analysisSkipped) {
         this.workflowName = workflowName;
         this.sha = sha;
         this.jobs = jobs;
         this.sameRepository = sameRepository;
         this.conclusion = conclusion;
         this.workflowRunUrl = workflowRunUrl;
+        this.analysisSkipped = analysisSkipped;
+
+        for (WorkflowReportJob job : jobs) {
+            deduplicateFailures(job);
+        }
     }
 
     public String getWorkflowName() {
@@ -37,6 +55,7 @@ public class WorkflowReport {
 
     public void addJob(WorkflowReportJob job) {
         this.jobs.add(job);
+        deduplicateFailures(job);
     }
 
     public List<WorkflowReportJob> getJobs() {
@@ -114,6 +133,13 @@ public class WorkflowReport {
         return workflowRunUrl;
     }
 
+    /**
+     * Whether the build reports were not analyzed because the bot couldn't reserve the resources needed.
+     */
+    public boolean isAnalysisSkipped() {
+        return analysisSkipped;
+    }
+
     public boolean hasErrorDownloadingBuildReports() {
         for (WorkflowReportJob job : jobs) {
             if (job.hasErrorDownloadingBuildReports()) {
@@ -122,4 +148,58 @@ public class WorkflowReport {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    public boolean hasAnalysisFailed() {
+        for (WorkflowReportJob job : jobs) {
+            if (job.hasAnalysisFailed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAnalysisTimedOut() {
+        for (WorkflowReportJob job : jobs) {
+            if (job.hasAnalysisTimedOut()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * When a test fails the same way in several jobs, typically on all the legs of a matrix,
+     * the failure is fully reported for the first job only and the other occurrences point to it.
+     */
+    private void deduplicateFailures(WorkflowReportJob job) {
+        for (WorkflowReportModule module : job.getModules()) {
+            for (WorkflowReportTestCase failure : module.getTestFailures()) {
+                if (failure.getFingerprint() == null) {
+                    continue;
+                }
+
+                FirstFailure firstFailure = firstFailures.putIfAbsent(failure.getFingerprint(),
+                        new FirstFailure(job, failure));
+                if (firstFailure == null || firstFailure.job == job) {
+                    continue;
+                }
+
+                failure.markDuplicateOf(firstFailure.job);
+                if (!firstFailure.failure.getOtherJobNames().contains(job.getName())) {
+                    firstFailure.failure.addOtherJob(job);
+                }
+            }
+        }
+    }
+
+    private static class FirstFailure {
+
+        private final WorkflowReportJob job;
+        private final WorkflowReportTestCase failure;
+
+        private FirstFailure(WorkflowReportJob job, WorkflowReportTestCase failure) {
+            this.job = job;
+            this.failure = failure;
+        }
+    }
+}
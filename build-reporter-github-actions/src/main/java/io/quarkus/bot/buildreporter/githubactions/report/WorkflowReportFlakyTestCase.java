@@ -3,8 +3,7 @@ package io.quarkus.bot.buildreporter.githubactions.report;
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.maven.plugins.surefire.report.ReportTestCase;
-
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 @RegisterForReflection
@@ -16,11 +15,11 @@ public class WorkflowReportFlakyTestCase implements Comparable<WorkflowReportFla
     private final String name;
     private final List<Flake> flakes;
 
-    public WorkflowReportFlakyTestCase(String classPath, ReportTestCase reportTestCase, List<Flake> flakes) {
+    public WorkflowReportFlakyTestCase(String classPath, TestCaseResult testCase, List<Flake> flakes) {
         this.classPath = classPath;
-        this.fullName = reportTestCase.getFullName();
-        this.fullClassName = reportTestCase.getFullClassName();
-        this.name = reportTestCase.getName();
+        this.fullName = testCase.getFullName();
+        this.fullClassName = testCase.getFullClassName();
+        this.name = testCase.getName();
         this.flakes = Collections.unmodifiableList(flakes);
     }
 
@@ -26,11 +26,13 @@ public class WorkflowReportJob {
     private final List<String> skippedModules;
     private final List<WorkflowReportModule> modules;
     private final boolean errorDownloadingSurefireReports;
+    private final boolean analysisFailed;
+    private final boolean analysisTimedOut;
 
     public WorkflowReportJob(String name, String label, String failuresAnchor, Conclusion conclusion, String failingStep,
             String url, String rawLogsUrl, String gradleBuildScanUrl, BuildReport buildReport,
             List<WorkflowReportModule> modules,
-            boolean errorDownloadingSurefireReports) {
+            boolean errorDownloadingSurefireReports, boolean analysisFailed, boolean analysisTimedOut) {
         this.name = name;
         this.label = label;
         this.failuresAnchor = failuresAnchor;
@@ -53,6 +55,8 @@ public class WorkflowReportJob {
                 .collect(Collectors.toList());
         this.modules = modules;
         this.errorDownloadingSurefireReports = errorDownloadingSurefireReports;
+        this.analysisFailed = analysisFailed;
+        this.analysisTimedOut = analysisTimedOut;
     }
 
     public String getName() {
@@ -165,6 +169,14 @@ public class WorkflowReportJob {
         return errorDownloadingSurefireReports;
     }
 
+    public boolean hasAnalysisFailed() {
+        return analysisFailed;
+    }
+
+    public boolean hasAnalysisTimedOut() {
+        return analysisTimedOut;
+    }
+
     public List<String> getFailingModules() {
         return failingModules;
     }
@@ -2,9 +2,6 @@ package io.quarkus.bot.buildreporter.githubactions.report;
 
 import java.util.List;
 
-import org.apache.maven.plugins.surefire.report.ReportTestCase;
-import org.apache.maven.plugins.surefire.report.ReportTestSuite;
-
 import io.quarkus.bot.build.reporting.model.BuildStatus;
 import io.quarkus.bot.build.reporting.model.ProjectReport;
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -17,17 +14,17 @@ public class WorkflowReportModule {
     private final String name;
     private final ProjectReport projectReport;
     private final String projectReportFailure;
-    private final List<ReportTestSuite> reportTestSuites;
+    private final WorkflowReportTestCounts testCounts;
     private final List<WorkflowReportTestCase> failures;
     private final List<WorkflowReportFlakyTestCase> flakyTests;
 
     public WorkflowReportModule(String name, ProjectReport projectReport, String projectReportFailure,
-            List<ReportTestSuite> reportTestSuites, List<WorkflowReportTestCase> failures,
+            WorkflowReportTestCounts testCounts, List<WorkflowReportTestCase> failures,
             List<WorkflowReportFlakyTestCase> flakyTests) {
         this.name = name;
         this.projectReport = projectReport;
         this.projectReportFailure = projectReportFailure;
-        this.reportTestSuites = reportTestSuites;
+        this.testCounts = testCounts;
         this.failures = failures;
         this.flakyTests = flakyTests;
     }
@@ -41,12 +38,7 @@ public class WorkflowReportModule {
     }
 
     public boolean hasTestFailures() {
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            if (reportTestSuite.getNumberOfErrors() > 0 || reportTestSuite.getNumberOfFailures() > 0) {
-                return true;
-            }
-        }
-        return false;
+        return testCounts.getErrors() > 0 || testCounts.getFailures() > 0;
     }
 
     public boolean hasBuildReportFailures() {
@@ -65,48 +57,28 @@ public class WorkflowReportModule {
         return flakyTests;
     }
 
+    public WorkflowReportTestCounts getTestCounts() {
+        return testCounts;
+    }
+
     public int getTestCount() {
-        int testCount = 0;
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            testCount += reportTestSuite.getNumberOfTests();
-        }
-        return testCount;
+        return testCounts.getTests();
     }
 
     public int getSuccessCount() {
-        int successCount = 0;
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            for (ReportTestCase reportTestCase : reportTestSuite.getTestCases()) {
-                if (reportTestCase.isSuccessful()) {
-                    successCount++;
-                }
-            }
-        }
-        return successCount;
+        return testCounts.getSuccesses();
     }
 
     public int getErrorCount() {
-        int testCount = 0;
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            testCount += reportTestSuite.getNumberOfErrors();
-        }
-        return testCount;
+        return testCounts.getErrors();
     }
 
     public int getFailureCount() {
-        int testCount = 0;
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            testCount += reportTestSuite.getNumberOfFailures();
-        }
-        return testCount;
+        return testCounts.getFailures();
     }
 
     public int getSkippedCount() {
-        int testCount = 0;
-        for (ReportTestSuite reportTestSuite : reportTestSuites) {
-            testCount += reportTestSuite.getNumberOfSkipped();
-        }
-        return testCount;
+        return testCounts.getSkipped();
     }
 
     public String getProjectReportFailure() {
@@ -1,7 +1,9 @@
 package io.quarkus.bot.buildreporter.githubactions.report;
 
-import org.apache.maven.plugins.surefire.report.ReportTestCase;
+import java.util.ArrayList;
+import java.util.List;
 
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 @RegisterForReflection
@@ -17,20 +19,32 @@ public class WorkflowReportTestCase implements Comparable<WorkflowReportTestCase
     private final String failureDetail;
     private final String failureUrl;
     private final String shortenedFailureUrl;
-
-    public WorkflowReportTestCase(String classPath, ReportTestCase reportTestCase, String abbreviatedFailureDetail,
+    private final String fingerprint;
+
+    /**
+     * The jobs in which the very same failure occurred, set on the first occurrence.
+     */
+    private final List<String> otherJobNames = new ArrayList<>(0);
+    /**
+     * The job in which the very same failure first occurred, set on the duplicates.
+     */
+    private WorkflowReportJob duplicateOf;
+
+    public WorkflowReportTestCase(String classPath, TestCaseResult testCase, String abbreviatedFailureDetail,
             String failureUrl,
-            String shortenedFailureUrl) {
+            String shortenedFailureUrl,
+            String fingerprint) {
         this.classPath = classPath;
-        this.fullName = reportTestCase.getFullName();
-        this.fullClassName = reportTestCase.getFullClassName();
-        this.name = reportTestCase.getName();
-        this.failureType = reportTestCase.getFailureType();
-        this.failureErrorLine = reportTestCase.getFailureErrorLine();
+        this.fullName = testCase.getFullName();
+        this.fullClassName = testCase.getFullClassName();
+        this.name = testCase.getName();
+        this.failureType = testCase.getFailureType();
+        this.failureErrorLine = testCase.getFailureErrorLine();
         this.abbreviatedFailureDetail = abbreviatedFailureDetail;
-        this.failureDetail = reportTestCase.getFailureDetail();
+        this.failureDetail = testCase.getFailureDetail();
         this.failureUrl = failureUrl;
         this.shortenedFailureUrl = shortenedFailureUrl;
+        this.fingerprint = fingerprint;
     }
 
     public String getClassPath() {
@@ -73,6 +87,34 @@ public class WorkflowReportTestCase implements Comparable<WorkflowReportTestCase
         return shortenedFailureUrl;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<String> getOtherJobNames() {
+        return otherJobNames;
+    }
+
+    public boolean isDuplicate() {
+        return duplicateOf != null;
+    }
+
+    public String getDuplicateOfJobName() {
+        return duplicateOf != null ? duplicateOf.getName() : null;
+    }
+
+    public String getDuplicateOfFailuresAnchor() {
+        return duplicateOf != null ? duplicateOf.getFailuresAnchor() : null;
+    }
+
+    void addOtherJob(WorkflowReportJob job) {
+        otherJobNames.add(job.getName());
+    }
+
+    void markDuplicateOf(WorkflowReportJob job) {
+        this.duplicateOf = job;
+    }
+
     @Override
     public int compareTo(WorkflowReportTestCase o) {
         int compare = this.fullName.compareTo(o.fullName);
@@ -0,0 +1,67 @@
+package io.quarkus.bot.buildreporter.githubactions.report;
+
+import java.util.List;
+
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestSuiteResult;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * The test counters of a module, computed once so that we don't have to keep the parsed test suites around.
+ */
+@RegisterForReflection
+public class WorkflowReportTestCounts {
+
+    public static final WorkflowReportTestCounts EMPTY = new WorkflowReportTestCounts(0, 0, 0, 0, 0);
+
+    private final int tests;
+    private final int successes;
+    private final int errors;
+    private final int failures;
+    private final int skipped;
+
+    public WorkflowReportTestCounts(int tests, int successes, int errors, int failures, int skipped) {
+        this.tests = tests;
+        this.successes = successes;
+        this.errors = errors;
+        this.failures = failures;
+        this.skipped = skipped;
+    }
+
+    public WorkflowReportTestCounts add(List<TestSuiteResult> testSuiteResults) {
+        int tests = this.tests;
+        int successes = this.successes;
+        int errors = this.errors;
+        int failures = this.failures;
+        int skipped = this.skipped;
+
+        for (TestSuiteResult testSuiteResult : testSuiteResults) {
+            tests += testSuiteResult.getNumberOfTests();
+            successes += testSuiteResult.getNumberOfSuccesses();
+            errors += testSuiteResult.getNumberOfErrors();
+            failures += testSuiteResult.getNumberOfFailures();
+            skipped += testSuiteResult.getNumberOfSkipped();
+        }
+
+        return new WorkflowReportTestCounts(tests, successes, errors, failures, skipped);
+    }
+
+    public int getTests() {
+        return tests;
+    }
+
+    public int getSuccesses() {
+        return successes;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+}
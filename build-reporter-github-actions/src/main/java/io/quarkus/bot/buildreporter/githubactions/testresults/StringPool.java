@@ -0,0 +1,44 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * De-duplicates the strings repeated all over the test results of an analysis: class names, failure types...
+ * <p>
+ * Contrary to {@link String#intern()}, the pool only lives as long as the analysis.
+ * Long strings such as stack traces are rarely repeated so they are not pooled.
+ */
+public final class StringPool {
+
+    private static final int DEFAULT_MAX_POOLED_LENGTH = 512;
+
+    private final int maxPooledLength;
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+
+    public StringPool() {
+        this(DEFAULT_MAX_POOLED_LENGTH);
+    }
+
+    /**
+     * @param maxPooledLength the longer strings are not pooled, a negative value disables the pooling
+     */
+    public StringPool(int maxPooledLength) {
+        this.maxPooledLength = maxPooledLength;
+    }
+
+    /**
+     * @return the pooled instance equal to the given string, or the given string if it is not pooled
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxPooledLength) {
+            return value;
+        }
+
+        String pooledValue = strings.putIfAbsent(value, value);
+        return pooledValue != null ? pooledValue : value;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+}
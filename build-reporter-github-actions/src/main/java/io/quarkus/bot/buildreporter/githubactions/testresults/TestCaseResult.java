@@ -0,0 +1,148 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A test case that didn't pass cleanly: it either failed, errored or is flaky.
+ * <p>
+ * Successful test cases are only accounted for in the counters of their {@link TestSuiteResult}.
+ */
+public class TestCaseResult {
+
+    private final String fullClassName;
+    private final String name;
+    private final String fullName;
+    private final Kind kind;
+    private final String failureType;
+    private final String failureMessage;
+    private final String failureDetail;
+    private final String failureErrorLine;
+    private final String systemOut;
+    private final String systemErr;
+    private final List<Flake> flakyFailures;
+    private final List<Flake> flakyErrors;
+
+    TestCaseResult(String fullClassName, String name, Kind kind, String failureType, String failureMessage,
+            String failureDetail, String failureErrorLine, String systemOut, String systemErr,
+            List<Flake> flakyFailures, List<Flake> flakyErrors) {
+        this.fullClassName = fullClassName;
+        this.name = name;
+        this.fullName = fullClassName + "." + name;
+        this.kind = kind;
+        this.failureType = failureType;
+        this.failureMessage = failureMessage;
+        this.failureDetail = failureDetail;
+        this.failureErrorLine = failureErrorLine;
+        this.systemOut = systemOut;
+        this.systemErr = systemErr;
+        this.flakyFailures = Collections.unmodifiableList(flakyFailures);
+        this.flakyErrors = Collections.unmodifiableList(flakyErrors);
+    }
+
+    public String getFullClassName() {
+        return fullClassName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getFailureType() {
+        return failureType;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public String getFailureDetail() {
+        return failureDetail;
+    }
+
+    public String getFailureErrorLine() {
+        return failureErrorLine;
+    }
+
+    /**
+     * @return the beginning of the standard output of the test, it is truncated if too long
+     */
+    public String getSystemOut() {
+        return systemOut;
+    }
+
+    /**
+     * @return the beginning of the error output of the test, it is truncated if too long
+     */
+    public String getSystemErr() {
+        return systemErr;
+    }
+
+    public boolean hasError() {
+        return kind == Kind.ERROR;
+    }
+
+    public boolean hasFailure() {
+        return kind == Kind.FAILURE;
+    }
+
+    public boolean hasSkipped() {
+        return kind == Kind.SKIPPED;
+    }
+
+    public boolean isSuccessful() {
+        return kind == null;
+    }
+
+    public boolean hasFlakes() {
+        return !flakyFailures.isEmpty() || !flakyErrors.isEmpty();
+    }
+
+    public List<Flake> getFlakyFailures() {
+        return flakyFailures;
+    }
+
+    public List<Flake> getFlakyErrors() {
+        return flakyErrors;
+    }
+
+    @Override
+    public String toString() {
+        return "TestCaseResult[" + fullName + ", " + (kind != null ? kind : "SUCCESS") + "]";
+    }
+
+    enum Kind {
+        ERROR,
+        FAILURE,
+        SKIPPED
+    }
+
+    public static class Flake {
+
+        private final String message;
+        private final String type;
+        private final String stackTrace;
+
+        Flake(String message, String type, String stackTrace) {
+            this.message = message;
+            this.type = type;
+            this.stackTrace = stackTrace;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getStackTrace() {
+            return stackTrace;
+        }
+    }
+}
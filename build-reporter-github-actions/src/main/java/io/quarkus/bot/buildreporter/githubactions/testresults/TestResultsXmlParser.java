@@ -0,0 +1,360 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult.Flake;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult.Kind;
+
+/**
+ * Parses the Surefire/Failsafe XML reports (also produced by Gradle) in a single streaming pass.
+ * <p>
+ * Contrary to the Surefire parser, the successful test cases are only counted and never materialized:
+ * only the failures, errors and flakes are kept with their details.
+ * The captured outputs are truncated so that a test logging a lot doesn't blow up the heap.
+ */
+public final class TestResultsXmlParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static final int MAX_CAPTURED_OUTPUT_LENGTH = 8 * 1024;
+
+    private static final String TESTSUITE = "testsuite";
+    private static final String TESTCASE = "testcase";
+    private static final String FAILURE = "failure";
+    private static final String ERROR = "error";
+    private static final String SKIPPED = "skipped";
+    private static final String FLAKY_FAILURE = "flakyFailure";
+    private static final String FLAKY_ERROR = "flakyError";
+    private static final String STACK_TRACE = "stackTrace";
+    private static final String SYSTEM_OUT = "system-out";
+    private static final String SYSTEM_ERR = "system-err";
+
+    public static List<TestSuiteResult> parse(Path file) throws IOException, XMLStreamException {
+        return parse(file, new StringPool());
+    }
+
+    public static List<TestSuiteResult> parse(Path file, StringPool stringPool) throws IOException, XMLStreamException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return parse(inputStream, stringPool);
+        }
+    }
+
+    /**
+     * The input stream is not closed.
+     */
+    public static List<TestSuiteResult> parse(InputStream inputStream) throws XMLStreamException {
+        return parse(inputStream, new StringPool());
+    }
+
+    /**
+     * The input stream is not closed.
+     *
+     * @param stringPool the pool used to de-duplicate the strings repeated across the test cases
+     */
+    public static List<TestSuiteResult> parse(InputStream inputStream, StringPool stringPool) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+
+        try {
+            List<TestSuiteResult> testSuiteResults = new ArrayList<>();
+
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && TESTSUITE.equals(reader.getLocalName())) {
+                    testSuiteResults.add(parseTestSuite(reader, stringPool));
+                }
+            }
+
+            return testSuiteResults;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static TestSuiteResult parseTestSuite(XMLStreamReader reader, StringPool stringPool)
+            throws XMLStreamException {
+        String suiteName = stringPool.intern(reader.getAttributeValue(null, "name"));
+        Integer declaredTests = getIntAttribute(reader, "tests");
+        Integer declaredErrors = getIntAttribute(reader, "errors");
+        Integer declaredFailures = getIntAttribute(reader, "failures");
+        Integer declaredSkipped = getIntAttribute(reader, "skipped");
+
+        int tests = 0;
+        int errors = 0;
+        int failures = 0;
+        int skipped = 0;
+        int successes = 0;
+        int flakes = 0;
+        List<TestCaseResult> testCases = new ArrayList<>();
+
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && TESTCASE.equals(reader.getLocalName())) {
+                    TestCaseResult testCase = parseTestCase(reader, suiteName, stringPool);
+
+                    tests++;
+                    if (testCase.hasError()) {
+                        errors++;
+                    } else if (testCase.hasFailure()) {
+                        failures++;
+                    } else if (testCase.hasSkipped()) {
+                        skipped++;
+                    } else {
+                        successes++;
+                    }
+                    if (testCase.hasFlakes()) {
+                        flakes++;
+                    }
+
+                    if (testCase.hasError() || testCase.hasFailure() || testCase.hasFlakes()) {
+                        testCases.add(testCase);
+                    }
+                } else {
+                    // we ignore the properties and the outputs of the suite
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        // the counters declared by the suite are authoritative, we only use ours if they are missing
+        return new TestSuiteResult(suiteName,
+                declaredTests != null ? declaredTests : tests,
+                declaredErrors != null ? declaredErrors : errors,
+                declaredFailures != null ? declaredFailures : failures,
+                declaredSkipped != null ? declaredSkipped : skipped,
+                successes, flakes, testCases);
+    }
+
+    private static TestCaseResult parseTestCase(XMLStreamReader reader, String suiteName, StringPool stringPool)
+            throws XMLStreamException {
+        String className = stringPool.intern(reader.getAttributeValue(null, "classname"));
+        String fullClassName = className != null ? className : suiteName;
+        String name = reader.getAttributeValue(null, "name");
+
+        Kind kind = null;
+        String failureType = null;
+        String failureMessage = null;
+        String failureDetail = null;
+        String failureErrorLine = null;
+        String systemOut = null;
+        String systemErr = null;
+        List<Flake> flakyFailures = new ArrayList<>(0);
+        List<Flake> flakyErrors = new ArrayList<>(0);
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            switch (reader.getLocalName()) {
+                case FAILURE:
+                case ERROR:
+                    kind = FAILURE.equals(reader.getLocalName()) ? Kind.FAILURE : Kind.ERROR;
+                    failureType = stringPool.intern(reader.getAttributeValue(null, "type"));
+                    failureMessage = stringPool.intern(reader.getAttributeValue(null, "message"));
+                    // we need the whole stack trace to find the line of the failure
+                    failureDetail = readText(reader, Integer.MAX_VALUE);
+                    failureErrorLine = stringPool.intern(parseErrorLine(failureDetail, fullClassName));
+                    break;
+                case SKIPPED:
+                    kind = Kind.SKIPPED;
+                    failureType = SKIPPED;
+                    failureMessage = stringPool.intern(reader.getAttributeValue(null, "message"));
+                    skip(reader);
+                    break;
+                case FLAKY_FAILURE:
+                    flakyFailures.add(parseFlake(reader, stringPool));
+                    break;
+                case FLAKY_ERROR:
+                    flakyErrors.add(parseFlake(reader, stringPool));
+                    break;
+                case SYSTEM_OUT:
+                    systemOut = readText(reader, MAX_CAPTURED_OUTPUT_LENGTH);
+                    break;
+                case SYSTEM_ERR:
+                    systemErr = readText(reader, MAX_CAPTURED_OUTPUT_LENGTH);
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+
+        if (kind == null && flakyFailures.isEmpty() && flakyErrors.isEmpty()) {
+            // nobody will look at the outputs of a successful test
+            systemOut = null;
+            systemErr = null;
+        }
+
+        return new TestCaseResult(fullClassName, name, kind, failureType, failureMessage, failureDetail, failureErrorLine,
+                systemOut, systemErr, flakyFailures, flakyErrors);
+    }
+
+    private static Flake parseFlake(XMLStreamReader reader, StringPool stringPool) throws XMLStreamException {
+        String message = stringPool.intern(reader.getAttributeValue(null, "message"));
+        String type = stringPool.intern(reader.getAttributeValue(null, "type"));
+        String stackTrace = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (STACK_TRACE.equals(reader.getLocalName())) {
+                stackTrace = readText(reader, Integer.MAX_VALUE);
+            } else {
+                // the outputs of the flaky runs are ignored
+                skip(reader);
+            }
+        }
+
+        return new Flake(message, type, stackTrace);
+    }
+
+    /**
+     * Reads the text content of the current element, up to {@code maxLength} characters.
+     * The reader is positioned on the end element of the current element when this method returns.
+     */
+    private static String readText(XMLStreamReader reader, int maxLength) throws XMLStreamException {
+        StringBuilder text = null;
+        boolean truncated = false;
+
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (truncated) {
+                        break;
+                    }
+                    if (text == null) {
+                        text = new StringBuilder();
+                    }
+                    int length = reader.getTextLength();
+                    int remaining = maxLength - text.length();
+                    if (length > remaining) {
+                        length = remaining;
+                        truncated = true;
+                    }
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), length);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (text == null) {
+            return null;
+        }
+        if (truncated) {
+            text.append("\n[...]");
+        }
+        return text.toString();
+    }
+
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Finds the line of the test class where the failure happened, the same way the Surefire parser does:
+     * we look for the last frame of the test class in the stack trace.
+     */
+    static String parseErrorLine(String failureDetail, String fullClassName) {
+        if (failureDetail == null || fullClassName == null) {
+            return "";
+        }
+
+        String methodPattern = "at " + fullClassName + '.';
+        String innerClassPattern = "at " + fullClassName + '$';
+
+        int methodIndex = failureDetail.lastIndexOf(methodPattern);
+        int innerClassIndex = failureDetail.lastIndexOf(innerClassPattern);
+        if (methodIndex == -1 && innerClassIndex == -1) {
+            return "";
+        }
+
+        int searchFrom = methodIndex > innerClassIndex ? methodIndex + methodPattern.length()
+                : innerClassIndex + innerClassPattern.length();
+        int lineStart = failureDetail.indexOf(':', searchFrom);
+        if (lineStart == -1) {
+            return "";
+        }
+        int lineEnd = failureDetail.indexOf(')', lineStart);
+        if (lineEnd == -1 || lineEnd == lineStart + 1) {
+            return "";
+        }
+
+        for (int i = lineStart + 1; i < lineEnd; i++) {
+            if (!Character.isDigit(failureDetail.charAt(i))) {
+                return "";
+            }
+        }
+
+        return failureDetail.substring(lineStart + 1, lineEnd);
+    }
+
+    private static Integer getIntAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        // the reports are not trusted
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+
+    private TestResultsXmlParser() {
+    }
+}
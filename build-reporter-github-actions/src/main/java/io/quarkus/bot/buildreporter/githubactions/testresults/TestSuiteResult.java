@@ -0,0 +1,73 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a test suite: the passing tests are only counted,
+ * the test cases are only kept when they failed, errored or are flaky.
+ */
+public class TestSuiteResult {
+
+    private final String name;
+    private final int numberOfTests;
+    private final int numberOfErrors;
+    private final int numberOfFailures;
+    private final int numberOfSkipped;
+    private final int numberOfSuccesses;
+    private final int numberOfFlakes;
+    private final List<TestCaseResult> testCases;
+
+    TestSuiteResult(String name, int numberOfTests, int numberOfErrors, int numberOfFailures, int numberOfSkipped,
+            int numberOfSuccesses, int numberOfFlakes, List<TestCaseResult> testCases) {
+        this.name = name;
+        this.numberOfTests = numberOfTests;
+        this.numberOfErrors = numberOfErrors;
+        this.numberOfFailures = numberOfFailures;
+        this.numberOfSkipped = numberOfSkipped;
+        this.numberOfSuccesses = numberOfSuccesses;
+        this.numberOfFlakes = numberOfFlakes;
+        this.testCases = Collections.unmodifiableList(testCases);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNumberOfTests() {
+        return numberOfTests;
+    }
+
+    public int getNumberOfErrors() {
+        return numberOfErrors;
+    }
+
+    public int getNumberOfFailures() {
+        return numberOfFailures;
+    }
+
+    public int getNumberOfSkipped() {
+        return numberOfSkipped;
+    }
+
+    public int getNumberOfSuccesses() {
+        return numberOfSuccesses;
+    }
+
+    public int getNumberOfFlakes() {
+        return numberOfFlakes;
+    }
+
+    /**
+     * @return the test cases that didn't pass cleanly, successful test cases are not kept
+     */
+    public List<TestCaseResult> getTestCases() {
+        return testCases;
+    }
+
+    @Override
+    public String toString() {
+        return "TestSuiteResult[" + name + ", tests=" + numberOfTests + ", errors=" + numberOfErrors + ", failures="
+                + numberOfFailures + ", skipped=" + numberOfSkipped + ", flakes=" + numberOfFlakes + "]";
+    }
+}
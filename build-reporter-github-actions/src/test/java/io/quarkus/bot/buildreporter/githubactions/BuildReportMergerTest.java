@@ -0,0 +1,157 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.build.reporting.model.BuildStatus;
+import io.quarkus.bot.build.reporting.model.ProjectReport;
+
+class BuildReportMergerTest {
+
+    @Test
+    void failureWinsOverSuccessWhichWinsOverSkip() {
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        buildReportMerger.merge(buildReport(skipped("core"), success("arc"), success("rest")));
+        buildReportMerger.merge(buildReport(success("core"), failure("arc"), skipped("rest")));
+
+        BuildReport buildReport = buildReportMerger.build();
+
+        assertEquals(List.of("core", "arc", "rest"), artifactIds(buildReport));
+        assertEquals(List.of(BuildStatus.SUCCESS, BuildStatus.FAILURE, BuildStatus.SUCCESS), statuses(buildReport));
+    }
+
+    @Test
+    void firstReportWinsForTheSameStatus() {
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        buildReportMerger.merge(ProjectReport.failure("First", Path.of("core"), "first error", "io.quarkus", "core"));
+        buildReportMerger.merge(ProjectReport.failure("Second", Path.of("core"), "second error", "io.quarkus", "core"));
+
+        BuildReport buildReport = buildReportMerger.build();
+
+        assertEquals(1, buildReport.getProjectReports().size());
+        assertEquals("first error", buildReport.getProjectReports().get(0).getError());
+    }
+
+    @Test
+    void fallsBackToTheBasedirWithoutCoordinates() {
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        buildReportMerger.merge(ProjectReport.success("Core", Path.of("core"), null, null));
+        buildReportMerger.merge(ProjectReport.failure("Core", Path.of("core"), "error", null, null));
+        buildReportMerger.merge(ProjectReport.success("Core", Path.of("other", "core"), null, null));
+
+        BuildReport buildReport = buildReportMerger.build();
+
+        assertEquals(2, buildReport.getProjectReports().size());
+        assertEquals(BuildStatus.FAILURE, buildReport.getProjectReports().get(0).getStatus());
+        assertEquals("other/core", buildReport.getProjectReports().get(1).getBasedir());
+    }
+
+    @Test
+    void streamsTheProjectReports() throws IOException {
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+        buildReportMerger.merge(stream("""
+                {
+                  "buildStatus": "FAILURE",
+                  "metadata": { "nested": [ { "projectReports": [] } ] },
+                  "projectReports": [
+                    { "name": "Core", "status": "FAILURE", "basedir": "core", "error": "Compilation failure",
+                      "groupId": "io.quarkus", "artifactId": "core" },
+                    { "name": "Arc", "status": "SUCCESS", "basedir": "arc", "groupId": "io.quarkus", "artifactId": "arc" }
+                  ]
+                }
+                """));
+
+        BuildReport buildReport = buildReportMerger.build();
+
+        assertEquals(List.of("core", "arc"), artifactIds(buildReport));
+        assertEquals("Compilation failure", buildReport.getProjectReports().get(0).getError());
+    }
+
+    @Test
+    void keepsTheProjectReportsReadBeforeAnError() {
+        BuildReportMerger buildReportMerger = new BuildReportMerger();
+
+        assertThrows(JsonProcessingException.class, () -> buildReportMerger.merge(stream("""
+                { "projectReports": [
+                    { "name": "Core", "status": "FAILURE", "basedir": "core", "groupId": "io.quarkus", "artifactId": "core" },
+                    { "name": "Arc", "status":
+                """)));
+
+        assertEquals(List.of("core"), artifactIds(buildReportMerger.build()));
+    }
+
+    @Test
+    void rejectsReportsThatAreNotObjects() {
+        assertThrows(JsonProcessingException.class, () -> new BuildReportMerger().merge(stream("[]")));
+    }
+
+    @Test
+    void doesNotCloseTheStream() throws IOException {
+        TrackingInputStream inputStream = new TrackingInputStream("""
+                { "projectReports": [ { "name": "Core", "status": "SUCCESS", "basedir": "core" } ] }
+                """);
+
+        new BuildReportMerger().merge(inputStream);
+
+        assertFalse(inputStream.closed);
+    }
+
+    private static BuildReport buildReport(ProjectReport... projectReports) {
+        BuildReport buildReport = new BuildReport();
+        for (ProjectReport projectReport : projectReports) {
+            buildReport.addProjectReport(projectReport);
+        }
+        return buildReport;
+    }
+
+    private static ProjectReport success(String artifactId) {
+        return ProjectReport.success(artifactId, Path.of(artifactId), "io.quarkus", artifactId);
+    }
+
+    private static ProjectReport failure(String artifactId) {
+        return ProjectReport.failure(artifactId, Path.of(artifactId), "error", "io.quarkus", artifactId);
+    }
+
+    private static ProjectReport skipped(String artifactId) {
+        return ProjectReport.skipped(artifactId, Path.of(artifactId), "io.quarkus", artifactId);
+    }
+
+    private static List<String> artifactIds(BuildReport buildReport) {
+        return buildReport.getProjectReports().stream().map(ProjectReport::getArtifactId).toList();
+    }
+
+    private static List<BuildStatus> statuses(BuildReport buildReport) {
+        return buildReport.getProjectReports().stream().map(ProjectReport::getStatus).toList();
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class TrackingInputStream extends ByteArrayInputStream {
+
+        private boolean closed;
+
+        private TrackingInputStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BuildReportsExtractorTest {
+
+    private static final String BUILD_REPORT = "core/target/build-report.json";
+    private static final String TEST_RESULTS = "core/target/surefire-reports/TEST-org.acme.CoreTest.xml";
+    private static final String IRRELEVANT = "core/target/classes/org/acme/Core.class";
+
+    private final BuildReportsExtractor extractor = new BuildReportsExtractor();
+
+    @TempDir
+    Path jobDirectory;
+
+    @Test
+    void extractsRelevantEntriesFromStream() throws IOException {
+        byte[] archive = zip(entries(BUILD_REPORT, "{}", TEST_RESULTS, "<testsuite/>", IRRELEVANT, "binary"));
+
+        BuildReports buildReports = extractor.extract(new ByteArrayInputStream(archive), jobDirectory, config().build());
+
+        assertTrue(Files.isRegularFile(jobDirectory.resolve(BUILD_REPORT)));
+        assertTrue(Files.isRegularFile(jobDirectory.resolve(TEST_RESULTS)));
+        assertFalse(Files.exists(jobDirectory.resolve(IRRELEVANT)));
+        assertEquals(List.of(jobDirectory.resolve(BUILD_REPORT).toAbsolutePath()),
+                absolute(buildReports.getBuildReportPaths()));
+        assertEquals(1, buildReports.getTestResultsPaths().size());
+    }
+
+    @Test
+    void extractsRelevantEntriesFromFile() throws IOException {
+        Path archive = Files.write(Files.createTempFile("build-reports", ".zip"),
+                zip(entries(BUILD_REPORT, "{}", TEST_RESULTS, "<testsuite/>", IRRELEVANT, "binary")));
+
+        try {
+            BuildReports buildReports = extractor.extract(archive, jobDirectory, config().build());
+
+            assertTrue(Files.isRegularFile(jobDirectory.resolve(BUILD_REPORT)));
+            assertTrue(Files.isRegularFile(jobDirectory.resolve(TEST_RESULTS)));
+            assertFalse(Files.exists(jobDirectory.resolve(IRRELEVANT)));
+            assertEquals(1, buildReports.getBuildReportPaths().size());
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    void extractsNestedArchive() throws IOException {
+        byte[] nestedArchive = zip(entries(BUILD_REPORT, "{}"));
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put(BuildReportsExtractor.NESTED_ZIP_FILE_NAME, nestedArchive);
+
+        extractor.extract(new ByteArrayInputStream(zip(entries)), jobDirectory, config().build());
+
+        assertEquals("{}", Files.readString(jobDirectory.resolve(BUILD_REPORT)));
+    }
+
+    @Test
+    void rejectsEntriesOutsideOfTheJobDirectory() {
+        for (String entryName : List.of("../../etc/cron.d/evil/target/build-report.json",
+                "core/../../target/build-report.json",
+                "core\\..\\..\\target\\build-report.json",
+                "/etc/target/build-report.json")) {
+            byte[] archive = zip(entries(entryName, "{}"));
+
+            assertThrows(IOException.class,
+                    () -> extractor.extract(new ByteArrayInputStream(archive), jobDirectory, config().build()),
+                    entryName);
+        }
+    }
+
+    @Test
+    void normalizesEntryPaths() throws IOException {
+        Path entryPath = BuildReportsExtractor.getZipEntryPath(jobDirectory, new ZipEntry("core/./target/build-report.json"));
+
+        assertEquals(jobDirectory.toAbsolutePath().normalize().resolve(BUILD_REPORT), entryPath);
+    }
+
+    @Test
+    void enforcesMaxEntries() {
+        byte[] archive = zip(entries(BUILD_REPORT, "{}", TEST_RESULTS, "<testsuite/>", IRRELEVANT, "binary"));
+
+        assertThrows(BuildReportsExtractor.LimitExceededException.class,
+                () -> extractor.extract(new ByteArrayInputStream(archive), jobDirectory,
+                        config().maxExtractedEntries(2).build()));
+    }
+
+    @Test
+    void enforcesMaxExtractedSize() {
+        // the irrelevant entries are inflated too so they count
+        byte[] archive = zip(entries(IRRELEVANT, "x".repeat(2048), BUILD_REPORT, "{}"));
+
+        assertThrows(BuildReportsExtractor.LimitExceededException.class,
+                () -> extractor.extract(new ByteArrayInputStream(archive), jobDirectory,
+                        config().maxExtractedSize(1024).build()));
+    }
+
+    @Test
+    void enforcesMaxCompressionRatio() {
+        // the ratio is only checked above 10 MB
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put(TEST_RESULTS, new byte[11 * 1024 * 1024]);
+        byte[] archive = zip(entries);
+
+        assertThrows(BuildReportsExtractor.LimitExceededException.class,
+                () -> extractor.extract(new ByteArrayInputStream(archive), jobDirectory,
+                        config().maxCompressionRatio(100).build()));
+    }
+
+    @Test
+    void recordsMetrics() throws IOException {
+        byte[] archive = zip(entries(BUILD_REPORT, "{}", IRRELEVANT, "binary"));
+
+        extractor.extract(new ByteArrayInputStream(archive), jobDirectory, config().build());
+
+        assertEquals(2, extractor.getTotalEntries());
+        assertEquals(archive.length, extractor.getTotalBytesIn());
+        assertEquals("{}".length() + "binary".length(), extractor.getTotalBytesOut());
+    }
+
+    private static BuildReporterConfig.Builder config() {
+        return BuildReporterConfig.builder();
+    }
+
+    private static List<Path> absolute(List<Path> paths) {
+        return paths.stream().map(Path::toAbsolutePath).toList();
+    }
+
+    private static Map<String, byte[]> entries(String... namesAndContents) {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            entries.put(namesAndContents[i], namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+        }
+        return entries;
+    }
+
+    private static byte[] zip(Map<String, byte[]> entries) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.build.reporting.model.ProjectReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.urlshortener.NoopUrlShortener;
+
+class BuildReportsUnarchiverTest {
+
+    /**
+     * The in-memory analysis resolves the module names against a relative directory that is never created.
+     */
+    private static final Path IN_MEMORY_JOB_DIRECTORY = Path.of("build-reports-analyzer", "build-reports-JVM Tests",
+            "retry-1");
+
+    private final WorkflowContext workflowContext = new WorkflowContext("quarkusio/quarkus", "Pull request",
+            "Pull request #1", "https://github.com/quarkusio/quarkus/pull/1");
+
+    @Test
+    void analyzesInMemoryWithRelativeJobDirectory() throws IOException {
+        BuildReport buildReport = new BuildReport();
+        buildReport.addProjectReport(ProjectReport.failure("Core", Path.of("core"), "Tests failed", "io.quarkus",
+                "quarkus-core"));
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("target/build-report.json", new ObjectMapper().writeValueAsBytes(buildReport));
+        entries.put("core/target/surefire-reports/TEST-org.acme.CoreTest.xml", """
+                <testsuite name="org.acme.CoreTest" tests="2" failures="1">
+                  <testcase name="success" classname="org.acme.CoreTest"/>
+                  <testcase name="failure" classname="org.acme.CoreTest">
+                    <failure message="failed" type="java.lang.AssertionError"><![CDATA[java.lang.AssertionError: failed
+                \tat org.acme.CoreTest.failure(CoreTest.java:42)]]></failure>
+                  </testcase>
+                </testsuite>
+                """.getBytes(StandardCharsets.UTF_8));
+        // an unparseable entry is logged relatively to the job directory and ignored
+        entries.put("other/target/surefire-reports/TEST-org.acme.OtherTest.xml",
+                "<testsuite".getBytes(StandardCharsets.UTF_8));
+
+        BuildReports buildReports = BuildReportsUnarchiver.analyze(workflowContext,
+                BuildReporterConfig.builder().inMemoryAnalysis(true).build(), new BuildReportsExtractor(),
+                "build-reports-JVM Tests", new ByteArrayInputStream(zip(entries)), IN_MEMORY_JOB_DIRECTORY);
+
+        assertFalse(Files.exists(IN_MEMORY_JOB_DIRECTORY));
+        assertEquals(1, buildReports.getBuildReports().size());
+
+        Map<String, WorkflowRunAnalyzer.ModuleReports> moduleReports = WorkflowRunAnalyzer.mapModuleReports(
+                buildReports.getBuildReports().get(0), buildReports.getTestResultsPaths(), buildReports.getJobDirectory());
+        assertEquals(List.of("core"), List.copyOf(moduleReports.keySet()));
+        assertEquals("Core", moduleReports.get("core").getProjectReport().getName());
+
+        WorkflowRunAnalyzer workflowRunAnalyzer = new WorkflowRunAnalyzer();
+        workflowRunAnalyzer.stackTraceShortener = (stacktrace, length) -> stacktrace;
+        workflowRunAnalyzer.urlShortener = new NoopUrlShortener();
+        WorkflowReportModule module = workflowRunAnalyzer.getModule(workflowContext, "core", moduleReports.get("core"),
+                Set.of(), "0123456789abcdef", new ConcurrentHashMap<>(), new StringPool());
+
+        assertEquals(2, module.getTestCounts().getTests());
+        assertEquals(1, module.getTestFailures().size());
+        assertTrue(module.hasReportedFailures());
+    }
+
+    @Test
+    void resolvesTheModulesAgainstARelativeJobDirectory() {
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(IN_MEMORY_JOB_DIRECTORY);
+        buildReportsBuilder.addTestResults(IN_MEMORY_JOB_DIRECTORY.resolve("core/target/surefire-reports/TEST-a.xml"),
+                List.of());
+        buildReportsBuilder.addTestResults(
+                IN_MEMORY_JOB_DIRECTORY.toAbsolutePath().resolve("other/./target/surefire-reports/TEST-b.xml"), List.of());
+
+        Map<String, WorkflowRunAnalyzer.ModuleReports> moduleReports = WorkflowRunAnalyzer.mapModuleReports(
+                new BuildReport(), buildReportsBuilder.build().getTestResultsPaths(), IN_MEMORY_JOB_DIRECTORY);
+
+        assertEquals(List.of("core", "other"), List.copyOf(moduleReports.keySet()));
+    }
+
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        }
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,124 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FilteringStackTraceShortenerTest {
+
+    private static final String STACK_TRACE = """
+            org.opentest4j.AssertionFailedError: expected: <200> but was: <500>
+            \tat org.acme.CoreTest.test(CoreTest.java:42)
+            \tat java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)
+            \tat java.base/java.lang.reflect.Method.invoke(Method.java:580)
+            \tat org.junit.platform.commons.util.ReflectionUtils.invokeMethod(ReflectionUtils.java:728)
+            \tat org.acme.TestExtension.intercept(TestExtension.java:12)
+            \tat java.base/java.lang.reflect.Method.invoke(Method.java:580)
+            \tat org.acme.Runner.run(Runner.java:7)
+            \tat org.apache.maven.surefire.junitplatform.JUnitPlatformProvider.invoke(JUnitPlatformProvider.java:142)
+            \tat org.apache.maven.surefire.booter.ForkedBooter.main(ForkedBooter.java:507)
+            """;
+
+    private final FilteringStackTraceShortener shortener = new FilteringStackTraceShortener();
+
+    @Test
+    void collapsesConsecutiveFilteredFrames() {
+        assertEquals("""
+                org.opentest4j.AssertionFailedError: expected: <200> but was: <500>
+                \tat org.acme.CoreTest.test(CoreTest.java:42)
+                \t... 3 filtered frames
+                \tat org.acme.TestExtension.intercept(TestExtension.java:12)
+                \tat java.base/java.lang.reflect.Method.invoke(Method.java:580)
+                \tat org.acme.Runner.run(Runner.java:7)
+                \t... 2 filtered frames""", shortener.shorten(STACK_TRACE, 10_000));
+    }
+
+    @Test
+    void foldsTheLinesAboveTheMaximum() {
+        assertEquals("""
+                org.opentest4j.AssertionFailedError: expected: <200> but was: <500>
+                \tat org.acme.CoreTest.test(CoreTest.java:42)
+                \t... 3 filtered frames
+                \t... 5 more""", shortener.shorten(STACK_TRACE, 10_000, 4));
+    }
+
+    @Test
+    void countsTheFilteredFramesInTheFoldedLines() {
+        assertEquals("""
+                org.opentest4j.AssertionFailedError: expected: <200> but was: <500>
+                \tat org.acme.CoreTest.test(CoreTest.java:42)
+                \t... 8 more""", shortener.shorten(STACK_TRACE, 10_000, 3));
+    }
+
+    @Test
+    void abbreviatesAtTheLength() {
+        String shortened = shortener.shorten(STACK_TRACE, 100);
+
+        assertEquals(100, shortened.length());
+        assertTrue(shortened.endsWith("..."));
+        assertTrue(shortened.startsWith("org.opentest4j.AssertionFailedError: expected: <200> but was: <500>\n\tat org.acme"));
+    }
+
+    @Test
+    void behavesLikeTheDefaultShortenerWithoutFilteredFrames() {
+        FilteringStackTraceShortener noFilteringShortener = new FilteringStackTraceShortener(List.of());
+        DefaultStackTraceShortener defaultShortener = new DefaultStackTraceShortener();
+
+        for (int length : List.of(10, 100, 500)) {
+            assertEquals(defaultShortener.shorten(STACK_TRACE, length), noFilteringShortener.shorten(STACK_TRACE, length));
+        }
+        // the trailing line break is only dropped when splitting the lines
+        assertEquals(defaultShortener.shorten(STACK_TRACE, 10_000, 100),
+                noFilteringShortener.shorten(STACK_TRACE, 10_000, 100));
+    }
+
+    @Test
+    void filtersTheFramesPrefixedWithTheClassLoaderOrTheModule() {
+        assertEquals("""
+                java.lang.IllegalStateException: boom
+                \tat app//org.acme.Core.run(Core.java:1)
+                \t... 2 filtered frames""", shortener.shorten("""
+                java.lang.IllegalStateException: boom
+                \tat app//org.acme.Core.run(Core.java:1)
+                \tat app//org.junit.jupiter.engine.execution.MethodInvocation.proceed(MethodInvocation.java:60)
+                \tat java.base/java.util.ArrayList.forEach(ArrayList.java:1596)
+                """, 10_000));
+    }
+
+    @Test
+    void keepsASingleFilteredFrame() {
+        String stackTrace = """
+                java.lang.NullPointerException
+                \tat java.base/java.util.Objects.requireNonNull(Objects.java:209)
+                \tat org.acme.Core.run(Core.java:1)""";
+
+        assertEquals(stackTrace, shortener.shorten(stackTrace, 10_000));
+    }
+
+    @Test
+    void keepsTheCausesAndTheirIndentation() {
+        assertEquals("""
+                java.lang.IllegalStateException: wrapper
+                \tat org.acme.Core.run(Core.java:1)
+                Caused by: java.io.IOException: boom
+                \tat org.acme.Core.read(Core.java:5)
+                \t... 2 filtered frames""", shortener.shorten("""
+                java.lang.IllegalStateException: wrapper\r
+                \tat org.acme.Core.run(Core.java:1)\r
+                Caused by: java.io.IOException: boom\r
+                \tat org.acme.Core.read(Core.java:5)\r
+                \tat java.base/java.io.InputStream.read(InputStream.java:220)\r
+                \tat java.base/java.io.InputStream.readAllBytes(InputStream.java:346)\r
+                """, 10_000));
+    }
+
+    @Test
+    void ignoresBlankStackTraces() {
+        assertNull(shortener.shorten(null, 100));
+        assertNull(shortener.shorten("  \n", 100));
+    }
+}
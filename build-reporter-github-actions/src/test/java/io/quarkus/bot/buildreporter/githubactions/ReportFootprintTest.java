@@ -0,0 +1,169 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestResultsXmlParser;
+import io.quarkus.bot.buildreporter.githubactions.urlshortener.NoopUrlShortener;
+
+/**
+ * Measures the strings retained by the modules of a large report, the same tests failing in all the jobs of the matrix.
+ */
+class ReportFootprintTest {
+
+    private static final Path JOB_DIRECTORY = Path.of("build-reports");
+    private static final int JOBS = 10;
+    private static final int MODULES = 50;
+    private static final int FAILURES_PER_MODULE = 10;
+
+    private final WorkflowContext workflowContext = new WorkflowContext("quarkusio/quarkus", "Pull request",
+            "Pull request #1", "https://github.com/quarkusio/quarkus/pull/1");
+
+    @Test
+    void poolsTheStringsRepeatedAcrossTheReport() throws XMLStreamException {
+        Footprint withoutPool = measure(analyze(() -> new StringPool(-1)));
+        StringPool stringPool = new StringPool();
+        Footprint withPool = measure(analyze(() -> stringPool));
+
+        // the stack traces are not pooled so they are retained once per job in both cases
+        assertTrue(withPool.strings < withoutPool.strings * 0.6,
+                "Expected 40% fewer strings, got " + withPool + " instead of " + withoutPool);
+        assertTrue(withPool.getEstimatedSize() < withoutPool.getEstimatedSize() * 0.75,
+                "Expected a 25% smaller footprint, got " + withPool + " instead of " + withoutPool);
+    }
+
+    private List<WorkflowReportModule> analyze(Supplier<StringPool> stringPoolSupplier) throws XMLStreamException {
+        WorkflowRunAnalyzer workflowRunAnalyzer = new WorkflowRunAnalyzer();
+        workflowRunAnalyzer.stackTraceShortener = new DefaultStackTraceShortener();
+        workflowRunAnalyzer.urlShortener = new NoopUrlShortener();
+        // shared by the jobs, as in the analysis
+        Map<String, WorkflowRunAnalyzer.FailureDetails> failureDetailsCache = new ConcurrentHashMap<>();
+
+        List<WorkflowReportModule> modules = new ArrayList<>();
+        for (int job = 0; job < JOBS; job++) {
+            for (int module = 0; module < MODULES; module++) {
+                String moduleName = "extensions/extension-" + module + "/deployment";
+                String className = "io.quarkus.extension" + module + ".deployment.ExtensionTest";
+
+                BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(JOB_DIRECTORY);
+                buildReportsBuilder.addTestResults(
+                        JOB_DIRECTORY.resolve(moduleName).resolve("target/surefire-reports/TEST-" + className + ".xml"),
+                        TestResultsXmlParser.parse(testResults(className), stringPoolSupplier.get()));
+                WorkflowRunAnalyzer.ModuleReports moduleReports = WorkflowRunAnalyzer.mapModuleReports(new BuildReport(),
+                        buildReportsBuilder.build().getTestResultsPaths(), JOB_DIRECTORY).get(moduleName);
+
+                modules.add(workflowRunAnalyzer.getModule(workflowContext, moduleName, moduleReports, Set.of(),
+                        "0123456789abcdef", failureDetailsCache, stringPoolSupplier.get()));
+            }
+        }
+        return modules;
+    }
+
+    private static ByteArrayInputStream testResults(String className) {
+        StringBuilder xml = new StringBuilder("<testsuite name=\"").append(className).append("\" tests=\"")
+                .append(FAILURES_PER_MODULE).append("\" failures=\"").append(FAILURES_PER_MODULE).append("\">\n");
+        for (int i = 0; i < FAILURES_PER_MODULE; i++) {
+            xml.append("  <testcase name=\"test").append(i).append("\" classname=\"").append(className).append("\">\n")
+                    .append("    <failure message=\"expected: &lt;200&gt; but was: &lt;500&gt;\"")
+                    .append(" type=\"org.opentest4j.AssertionFailedError\">")
+                    .append("org.opentest4j.AssertionFailedError: expected: &lt;200&gt; but was: &lt;500&gt;\n")
+                    .append("\tat ").append(className).append(".test").append(i).append("(ExtensionTest.java:")
+                    .append(40 + i).append(")\n")
+                    .append("\tat java.base/java.lang.reflect.Method.invoke(Method.java:580)\n")
+                    .append("</failure>\n")
+                    .append("  </testcase>\n");
+        }
+        return new ByteArrayInputStream(xml.append("</testsuite>\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Walks the object graph of the report and accounts for each string instance once.
+     */
+    private static Footprint measure(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+
+        Footprint footprint = new Footprint();
+        while (!toVisit.isEmpty()) {
+            Object object = toVisit.pop();
+            if (!visited.add(object)) {
+                continue;
+            }
+
+            if (object instanceof String string) {
+                footprint.strings++;
+                footprint.chars += string.length();
+            } else if (object instanceof Collection<?> collection) {
+                collection.stream().filter(e -> e != null).forEach(toVisit::push);
+            } else if (object instanceof Map<?, ?> map) {
+                map.forEach((k, v) -> {
+                    toVisit.push(k);
+                    if (v != null) {
+                        toVisit.push(v);
+                    }
+                });
+            } else if (!(object instanceof Enum) && object.getClass().getName().startsWith("io.quarkus.bot.")) {
+                for (Class<?> clazz = object.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+                    for (Field field : clazz.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        try {
+                            Object value = field.get(object);
+                            if (value != null) {
+                                toVisit.push(value);
+                            }
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            }
+        }
+        return footprint;
+    }
+
+    private static class Footprint {
+
+        // object header, hash and coder of the String plus the header of its array, on a 64-bit JVM
+        private static final int STRING_OVERHEAD = 40;
+
+        private long strings;
+        private long chars;
+
+        private long getEstimatedSize() {
+            // the strings of the reports are Latin-1 so one byte per character
+            return strings * STRING_OVERHEAD + chars;
+        }
+
+        @Override
+        public String toString() {
+            return strings + " strings, " + chars + " characters, ~" + getEstimatedSize() + " bytes";
+        }
+    }
+}
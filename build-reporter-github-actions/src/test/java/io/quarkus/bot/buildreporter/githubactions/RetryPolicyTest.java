@@ -0,0 +1,199 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHException;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.HttpException;
+
+class RetryPolicyTest {
+
+    private static final RetryPolicy.Sleeper NO_SLEEP = duration -> {
+    };
+
+    @Test
+    void retriesServerErrorsAndRateLimiting() {
+        assertTrue(RetryPolicy.isRetryable(httpException(500)));
+        assertTrue(RetryPolicy.isRetryable(httpException(503)));
+        assertTrue(RetryPolicy.isRetryable(httpException(429)));
+        assertTrue(RetryPolicy.isRetryable(httpException(-1)));
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        assertFalse(RetryPolicy.isRetryable(httpException(404)));
+        assertFalse(RetryPolicy.isRetryable(httpException(403)));
+        assertFalse(RetryPolicy.isRetryable(new GHFileNotFoundException("Not Found")));
+    }
+
+    @Test
+    void retriesConnectionErrors() {
+        assertTrue(RetryPolicy.isRetryable(new IOException("Connection reset")));
+        assertTrue(RetryPolicy.isRetryable(new SocketTimeoutException("Read timed out")));
+    }
+
+    @Test
+    void inspectsTheWholeCauseChain() {
+        assertTrue(RetryPolicy.isRetryable(new UncheckedIOException(new IOException("Connection reset"))));
+        assertTrue(RetryPolicy.isRetryable(new GHException("Failed to retrieve", new IOException("Connection reset"))));
+        assertTrue(RetryPolicy.isRetryable(
+                new IllegalStateException(new GHException("Failed to retrieve", httpException(502)))));
+        assertFalse(RetryPolicy.isRetryable(new GHException("Failed to retrieve", httpException(404))));
+        assertFalse(RetryPolicy.isRetryable(new UncheckedIOException(new GHFileNotFoundException("Not Found"))));
+    }
+
+    @Test
+    void doesNotRetryOtherErrors() {
+        assertFalse(RetryPolicy.isRetryable(new IllegalStateException("Unexpected")));
+        assertFalse(RetryPolicy.isRetryable(new NullPointerException()));
+    }
+
+    @Test
+    void retriesUntilTheConditionIsMet() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        boolean met = policy(Duration.ofSeconds(10)).await(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("Connection reset");
+            }
+            return true;
+        }, NO_SLEEP);
+
+        assertTrue(met);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void givesUpOnNonRetryableErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        boolean met = policy(Duration.ofSeconds(10)).await(() -> {
+            attempts.incrementAndGet();
+            throw new GHFileNotFoundException("Not Found");
+        }, NO_SLEEP);
+
+        assertFalse(met);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void reportsTheErrorWeGaveUpOn() {
+        GHFileNotFoundException notFound = new GHFileNotFoundException("Not Found");
+
+        RetryPolicy.Outcome outcome = policy(Duration.ofSeconds(10)).awaitOutcome(() -> {
+            throw notFound;
+        }, NO_SLEEP);
+
+        assertFalse(outcome.isMet());
+        assertSame(notFound, outcome.getFailure().get());
+    }
+
+    @Test
+    void reportsNoErrorWhenTheAttemptsTimeOut() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .delay(Duration.ofMillis(1))
+                .maxDelay(Duration.ofMillis(1))
+                .jitter(0)
+                .attemptTimeout(Duration.ofMillis(50))
+                .maxDuration(Duration.ofMillis(200))
+                .build();
+
+        RetryPolicy.Outcome outcome = retryPolicy.awaitOutcome(() -> {
+            Thread.sleep(10_000);
+            return true;
+        }, NO_SLEEP);
+
+        assertFalse(outcome.isMet());
+        assertTrue(outcome.getFailure().isEmpty());
+    }
+
+    @Test
+    void abortsTheAttemptsThatTimeOut() {
+        BlockingCondition condition = new BlockingCondition();
+
+        boolean met = policy(Duration.ofMillis(100)).await(condition, NO_SLEEP);
+
+        assertTrue(met);
+        assertEquals(1, condition.aborts.get());
+        assertEquals(2, condition.attempts.get());
+        // the second attempt only starts once the first one has been aborted
+        assertEquals(1, condition.maxConcurrentAttempts.get());
+    }
+
+    @Test
+    void onlyExtendsTheAttemptTimeout() {
+        RetryPolicy retryPolicy = policy(Duration.ofMinutes(2));
+
+        assertSame(retryPolicy, retryPolicy.withAttemptTimeout(Duration.ofMinutes(1)));
+        assertNotSame(retryPolicy, retryPolicy.withAttemptTimeout(Duration.ofMinutes(10)));
+    }
+
+    private static RetryPolicy policy(Duration attemptTimeout) {
+        return RetryPolicy.builder()
+                .delay(Duration.ofMillis(1))
+                .maxDelay(Duration.ofMillis(1))
+                .jitter(0)
+                .attemptTimeout(attemptTimeout)
+                .maxDuration(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private static HttpException httpException(int responseCode) {
+        return new HttpException("Error " + responseCode, responseCode, "Error", "https://api.github.com/");
+    }
+
+    /**
+     * The first attempt blocks like a socket read would, until it is aborted.
+     */
+    private static class BlockingCondition implements Callable<Boolean>, RetryPolicy.Abortable {
+
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger aborts = new AtomicInteger();
+        private final AtomicInteger concurrentAttempts = new AtomicInteger();
+        private final AtomicInteger maxConcurrentAttempts = new AtomicInteger();
+
+        @Override
+        public Boolean call() throws Exception {
+            maxConcurrentAttempts.accumulateAndGet(concurrentAttempts.incrementAndGet(), Math::max);
+            try {
+                if (attempts.incrementAndGet() > 1) {
+                    return true;
+                }
+
+                // interrupting the thread is not enough to unblock a socket read, we ignore the interruptions
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (aborted.getCount() > 0 && System.nanoTime() < deadline) {
+                    try {
+                        aborted.await(10, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        // ignored on purpose
+                    }
+                }
+                throw new IOException("Stream closed");
+            } finally {
+                concurrentAttempts.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void abort() {
+            aborts.incrementAndGet();
+            aborted.countDown();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.build.reporting.model.BuildReport;
+import io.quarkus.bot.build.reporting.model.ProjectReport;
+import io.quarkus.bot.buildreporter.githubactions.report.WorkflowReportModule;
+import io.quarkus.bot.buildreporter.githubactions.testresults.StringPool;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestResultsXmlParser;
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestSuiteResult;
+import io.quarkus.bot.buildreporter.githubactions.urlshortener.NoopUrlShortener;
+
+class WorkflowRunAnalyzerTest {
+
+    private static final Path JOB_DIRECTORY = Path.of("build-reports");
+    private static final String MODULE_NAME = "core/deployment";
+
+    private final WorkflowContext workflowContext = new WorkflowContext("quarkusio/quarkus", "Pull request",
+            "Pull request #1", "https://github.com/quarkusio/quarkus/pull/1");
+
+    @Test
+    void processesEachReportDirectoryOnce() throws XMLStreamException {
+        AtomicInteger shortenedStackTraces = new AtomicInteger();
+        WorkflowRunAnalyzer workflowRunAnalyzer = analyzer((stacktrace, length) -> {
+            shortenedStackTraces.incrementAndGet();
+            return stacktrace;
+        });
+
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(JOB_DIRECTORY);
+        for (int i = 0; i < 5; i++) {
+            addTestResults(buildReportsBuilder, "target/surefire-reports-" + i, "org.acme.Directory" + i + "Test");
+        }
+        addTestResults(buildReportsBuilder, "target/failsafe-reports", "org.acme.CoreIT");
+
+        WorkflowRunAnalyzer.ModuleReports moduleReports = WorkflowRunAnalyzer.mapModuleReports(new BuildReport(),
+                buildReportsBuilder.build().getTestResultsPaths(), JOB_DIRECTORY).get(MODULE_NAME);
+        WorkflowReportModule module = workflowRunAnalyzer.getModule(workflowContext, MODULE_NAME, moduleReports, Set.of(),
+                "0123456789abcdef", new ConcurrentHashMap<>(), new StringPool());
+
+        assertEquals(12, module.getTestCounts().getTests());
+        assertEquals(6, module.getTestCounts().getFailures());
+        assertEquals(6, module.getTestFailures().size());
+        assertEquals(6, shortenedStackTraces.get());
+    }
+
+    @Test
+    void shortensTheSameFailureOncePerModule() throws XMLStreamException {
+        AtomicInteger shortenedStackTraces = new AtomicInteger();
+        WorkflowRunAnalyzer workflowRunAnalyzer = analyzer((stacktrace, length) -> {
+            shortenedStackTraces.incrementAndGet();
+            return stacktrace;
+        });
+        Map<String, WorkflowRunAnalyzer.FailureDetails> failureDetailsCache = new ConcurrentHashMap<>();
+
+        // the same failure reported by two jobs
+        for (int i = 0; i < 2; i++) {
+            BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(JOB_DIRECTORY);
+            addTestResults(buildReportsBuilder, "target/surefire-reports", "org.acme.CoreTest");
+            WorkflowRunAnalyzer.ModuleReports moduleReports = WorkflowRunAnalyzer.mapModuleReports(new BuildReport(),
+                    buildReportsBuilder.build().getTestResultsPaths(), JOB_DIRECTORY).get(MODULE_NAME);
+
+            workflowRunAnalyzer.getModule(workflowContext, MODULE_NAME, moduleReports, Set.of(), "0123456789abcdef",
+                    failureDetailsCache, new StringPool());
+        }
+
+        assertEquals(1, shortenedStackTraces.get());
+    }
+
+    @Test
+    void groupsTheReportsByModule() {
+        BuildReport buildReport = new BuildReport();
+        buildReport.addProjectReport(ProjectReport.failure("Core", Path.of("core", "deployment"), "Compilation failure",
+                "io.quarkus", "quarkus-core-deployment"));
+        buildReport.addProjectReport(ProjectReport.success("Core again", Path.of("core", "deployment"), "io.quarkus",
+                "quarkus-core-deployment"));
+        buildReport.addProjectReport(ProjectReport.success("Parent", Path.of(""), "io.quarkus", "quarkus-parent"));
+
+        BuildReports.Builder buildReportsBuilder = new BuildReports.Builder(JOB_DIRECTORY);
+        buildReportsBuilder.addTestResults(JOB_DIRECTORY.resolve("core/deployment/target/surefire-reports/TEST-a.xml"),
+                List.of());
+        buildReportsBuilder.addTestResults(JOB_DIRECTORY.resolve("core/deployment/target/failsafe-reports/TEST-b.xml"),
+                List.of());
+        buildReportsBuilder.addTestResults(JOB_DIRECTORY.resolve("other/target/surefire-reports/TEST-c.xml"), List.of());
+        buildReportsBuilder.addTestResults(JOB_DIRECTORY.resolve("target/surefire-reports/TEST-d.xml"), List.of());
+
+        Map<String, WorkflowRunAnalyzer.ModuleReports> moduleReports = WorkflowRunAnalyzer.mapModuleReports(buildReport,
+                buildReportsBuilder.build().getTestResultsPaths(), JOB_DIRECTORY);
+
+        assertEquals(List.of("Root module", "core/deployment", "other"), List.copyOf(moduleReports.keySet()));
+
+        WorkflowRunAnalyzer.ModuleReports core = moduleReports.get("core/deployment");
+        // the first project report wins
+        assertEquals("Core", core.getProjectReport().getName());
+        assertEquals(2, core.getTestResultsPaths().size());
+
+        assertNull(moduleReports.get("other").getProjectReport());
+        assertEquals(1, moduleReports.get("other").getTestResultsPaths().size());
+
+        assertEquals("Parent", moduleReports.get(WorkflowReportModule.ROOT_MODULE).getProjectReport().getName());
+        assertEquals(1, moduleReports.get(WorkflowReportModule.ROOT_MODULE).getTestResultsPaths().size());
+    }
+
+    private static WorkflowRunAnalyzer analyzer(StackTraceShortener stackTraceShortener) {
+        WorkflowRunAnalyzer workflowRunAnalyzer = new WorkflowRunAnalyzer();
+        workflowRunAnalyzer.stackTraceShortener = stackTraceShortener;
+        workflowRunAnalyzer.urlShortener = new NoopUrlShortener();
+        return workflowRunAnalyzer;
+    }
+
+    private static void addTestResults(BuildReports.Builder buildReportsBuilder, String directory, String className)
+            throws XMLStreamException {
+        List<TestSuiteResult> testSuiteResults = TestResultsXmlParser.parse(new ByteArrayInputStream("""
+                <testsuite name="%1$s" tests="2" failures="1">
+                  <testcase name="success" classname="%1$s"/>
+                  <testcase name="failure" classname="%1$s">
+                    <failure message="failed" type="java.lang.AssertionError"><![CDATA[java.lang.AssertionError: failed
+                \tat %1$s.failure(Test.java:42)]]></failure>
+                  </testcase>
+                </testsuite>
+                """.formatted(className).getBytes(StandardCharsets.UTF_8)));
+
+        buildReportsBuilder.addTestResults(
+                JOB_DIRECTORY.resolve(MODULE_NAME).resolve(directory).resolve("TEST-" + className + ".xml"),
+                testSuiteResults);
+    }
+}
@@ -0,0 +1,90 @@
+package io.quarkus.bot.buildreporter.githubactions;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHArtifact;
+
+class WorkflowRunArtifactsTrackerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void ignoresAListingThatPredatesTheWorkflowRunCompletion() throws InterruptedException {
+        WorkflowRunArtifactsTracker.TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRun();
+        List<GHArtifact> staleArtifacts = new ArrayList<>();
+        trackedWorkflowRun.artifactsListed(trackedWorkflowRun.startListing(), staleArtifacts);
+
+        long workflowRunCompletion = nanoTimeAfter(trackedWorkflowRun.startListing());
+
+        assertTrue(trackedWorkflowRun.awaitArtifactsListedAfter(workflowRunCompletion, Duration.ofMillis(50)).isEmpty());
+
+        // the listing started on completion wakes up the waiter
+        List<GHArtifact> artifacts = new ArrayList<>();
+        Thread listing = new Thread(() -> {
+            long listingStart = trackedWorkflowRun.startListing();
+            sleep(100);
+            trackedWorkflowRun.artifactsListed(listingStart, artifacts);
+        });
+        listing.start();
+
+        Optional<List<GHArtifact>> listedArtifacts = trackedWorkflowRun.awaitArtifactsListedAfter(workflowRunCompletion,
+                TIMEOUT);
+        listing.join();
+
+        assertSame(artifacts, listedArtifacts.get());
+    }
+
+    @Test
+    void doesNotWaitForAFailedListing() throws InterruptedException {
+        WorkflowRunArtifactsTracker.TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRun();
+
+        long workflowRunCompletion = System.nanoTime();
+        trackedWorkflowRun.listingFailed(nanoTimeAfter(workflowRunCompletion));
+
+        long start = System.nanoTime();
+        assertTrue(trackedWorkflowRun.awaitArtifactsListedAfter(workflowRunCompletion, TIMEOUT).isEmpty());
+        assertTrue(System.nanoTime() - start < TIMEOUT.toNanos());
+    }
+
+    @Test
+    void doesNotTrackAnotherRunAttempt() {
+        WorkflowRunArtifactsTracker.TrackedWorkflowRun trackedWorkflowRun = trackedWorkflowRun();
+
+        assertTrue(trackedWorkflowRun.isTracked(1));
+        assertFalse(trackedWorkflowRun.isTracked(2));
+
+        trackedWorkflowRun.ignore();
+        assertFalse(trackedWorkflowRun.isTracked(1));
+    }
+
+    private static WorkflowRunArtifactsTracker.TrackedWorkflowRun trackedWorkflowRun() {
+        WorkflowRunArtifactsTracker.TrackedWorkflowRun trackedWorkflowRun = new WorkflowRunArtifactsTracker.TrackedWorkflowRun(
+                null, 1L);
+        trackedWorkflowRun.jobCompleted(1);
+        return trackedWorkflowRun;
+    }
+
+    private static long nanoTimeAfter(long nanoTime) {
+        long now;
+        while ((now = System.nanoTime()) == nanoTime) {
+            Thread.onSpinWait();
+        }
+        return now;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+    @Test
+    void returnsThePooledInstance() {
+        StringPool stringPool = new StringPool();
+        String first = new String("org.acme.CoreTest");
+
+        assertSame(first, stringPool.intern(first));
+        assertSame(first, stringPool.intern(new String("org.acme.CoreTest")));
+        assertEquals(1, stringPool.size());
+    }
+
+    @Test
+    void doesNotPoolLongStrings() {
+        StringPool stringPool = new StringPool();
+        String stackTrace = "x".repeat(513);
+
+        assertSame(stackTrace, stringPool.intern(stackTrace));
+        String otherStackTrace = new String(stackTrace);
+        assertSame(otherStackTrace, stringPool.intern(otherStackTrace));
+        assertEquals(0, stringPool.size());
+    }
+
+    @Test
+    void canBeDisabled() {
+        StringPool stringPool = new StringPool(-1);
+        String empty = new String("");
+
+        assertSame(empty, stringPool.intern(empty));
+        assertEquals(0, stringPool.size());
+    }
+
+    @Test
+    void ignoresNull() {
+        assertNull(new StringPool().intern(null));
+    }
+}
@@ -0,0 +1,203 @@
+package io.quarkus.bot.buildreporter.githubactions.testresults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.buildreporter.githubactions.testresults.TestCaseResult.Flake;
+
+class TestResultsXmlParserTest {
+
+    private static final String STACK_TRACE = """
+            org.opentest4j.AssertionFailedError: expected: <1> but was: <2>
+            \tat org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:55)
+            \tat org.acme.CoreTest.helper(CoreTest.java:12)
+            \tat org.acme.CoreTest.test(CoreTest.java:42)
+            \tat java.base/java.lang.reflect.Method.invoke(Method.java:580)
+            """;
+
+    @Test
+    void keepsOnlyFailuresErrorsAndFlakes() throws XMLStreamException {
+        List<TestSuiteResult> testSuites = parse("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="org.acme.CoreTest" tests="5" errors="1" failures="1" skipped="1">
+                  <properties><property name="java.version" value="21"/></properties>
+                  <testcase name="success" classname="org.acme.CoreTest" time="0.01">
+                    <system-out>only for the successful test</system-out>
+                  </testcase>
+                  <testcase name="test" classname="org.acme.CoreTest" time="0.01">
+                    <failure message="expected: &lt;1&gt; but was: &lt;2&gt;"
+                        type="org.opentest4j.AssertionFailedError"><![CDATA[%s]]></failure>
+                    <system-out>some output</system-out>
+                  </testcase>
+                  <testcase name="error" classname="org.acme.CoreTest" time="0.01">
+                    <error message="boom" type="java.lang.IllegalStateException">java.lang.IllegalStateException: boom</error>
+                  </testcase>
+                  <testcase name="skipped" classname="org.acme.CoreTest" time="0">
+                    <skipped message="disabled"/>
+                  </testcase>
+                  <testcase name="flaky" classname="org.acme.CoreTest" time="0.01">
+                    <flakyFailure message="first run" type="java.lang.AssertionError">
+                      <stackTrace>java.lang.AssertionError: first run</stackTrace>
+                      <system-out>ignored</system-out>
+                    </flakyFailure>
+                  </testcase>
+                </testsuite>
+                """.formatted(STACK_TRACE));
+
+        assertEquals(1, testSuites.size());
+        TestSuiteResult testSuite = testSuites.get(0);
+        assertEquals("org.acme.CoreTest", testSuite.getName());
+        assertEquals(5, testSuite.getNumberOfTests());
+        assertEquals(1, testSuite.getNumberOfErrors());
+        assertEquals(1, testSuite.getNumberOfFailures());
+        assertEquals(1, testSuite.getNumberOfSkipped());
+        assertEquals(2, testSuite.getNumberOfSuccesses());
+        assertEquals(1, testSuite.getNumberOfFlakes());
+
+        List<TestCaseResult> testCases = testSuite.getTestCases();
+        assertEquals(3, testCases.size());
+
+        TestCaseResult failure = testCases.get(0);
+        assertEquals("org.acme.CoreTest.test", failure.getFullName());
+        assertTrue(failure.hasFailure());
+        assertEquals("org.opentest4j.AssertionFailedError", failure.getFailureType());
+        assertEquals("expected: <1> but was: <2>", failure.getFailureMessage());
+        assertEquals(STACK_TRACE, failure.getFailureDetail());
+        assertEquals("42", failure.getFailureErrorLine());
+        assertEquals("some output", failure.getSystemOut());
+
+        TestCaseResult error = testCases.get(1);
+        assertTrue(error.hasError());
+        assertEquals("boom", error.getFailureMessage());
+
+        TestCaseResult flaky = testCases.get(2);
+        assertFalse(flaky.hasFailure());
+        assertTrue(flaky.hasFlakes());
+        assertEquals(1, flaky.getFlakyFailures().size());
+        Flake flake = flaky.getFlakyFailures().get(0);
+        assertEquals("first run", flake.getMessage());
+        assertEquals("java.lang.AssertionError", flake.getType());
+        assertEquals("java.lang.AssertionError: first run", flake.getStackTrace());
+    }
+
+    @Test
+    void countsTestCasesWhenSuiteCountersAreMissing() throws XMLStreamException {
+        List<TestSuiteResult> testSuites = parse("""
+                <testsuite name="org.acme.GradleTest">
+                  <testcase name="success" classname="org.acme.GradleTest"/>
+                  <testcase name="failure" classname="org.acme.GradleTest">
+                    <failure message="failed" type="java.lang.AssertionError">java.lang.AssertionError: failed</failure>
+                  </testcase>
+                  <testcase name="skipped" classname="org.acme.GradleTest"><skipped/></testcase>
+                </testsuite>
+                """);
+
+        TestSuiteResult testSuite = testSuites.get(0);
+        assertEquals(3, testSuite.getNumberOfTests());
+        assertEquals(1, testSuite.getNumberOfFailures());
+        assertEquals(0, testSuite.getNumberOfErrors());
+        assertEquals(1, testSuite.getNumberOfSkipped());
+        assertEquals(1, testSuite.getNumberOfSuccesses());
+    }
+
+    @Test
+    void parsesSeveralSuites() throws XMLStreamException {
+        List<TestSuiteResult> testSuites = parse("""
+                <testsuites>
+                  <testsuite name="org.acme.FirstTest" tests="1">
+                    <testcase name="a" classname="org.acme.FirstTest"/>
+                  </testsuite>
+                  <testsuite name="org.acme.SecondTest" tests="1">
+                    <testcase name="b" classname="org.acme.SecondTest"/>
+                  </testsuite>
+                </testsuites>
+                """);
+
+        assertEquals(2, testSuites.size());
+        assertEquals("org.acme.FirstTest", testSuites.get(0).getName());
+        assertEquals("org.acme.SecondTest", testSuites.get(1).getName());
+    }
+
+    @Test
+    void truncatesCapturedOutputs() throws XMLStreamException {
+        String output = "x".repeat(100_000);
+
+        List<TestSuiteResult> testSuites = parse("""
+                <testsuite name="org.acme.CoreTest" tests="1" failures="1">
+                  <testcase name="test" classname="org.acme.CoreTest">
+                    <failure message="failed" type="java.lang.AssertionError">java.lang.AssertionError: failed</failure>
+                    <system-out>%s</system-out>
+                    <system-err>%s</system-err>
+                  </testcase>
+                </testsuite>
+                """.formatted(output, output));
+
+        TestCaseResult failure = testSuites.get(0).getTestCases().get(0);
+        assertTrue(failure.getSystemOut().length() < 10 * 1024);
+        assertTrue(failure.getSystemOut().endsWith("[...]"));
+        assertTrue(failure.getSystemErr().length() < 10 * 1024);
+    }
+
+    @Test
+    void doesNotResolveExternalEntities() {
+        assertThrows(XMLStreamException.class, () -> parse("""
+                <?xml version="1.0"?>
+                <!DOCTYPE testsuite [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+                <testsuite name="&xxe;"/>
+                """));
+    }
+
+    @Test
+    void sharesTheStringsAcrossTheFiles() throws XMLStreamException {
+        String xml = """
+                <testsuite name="org.acme.CoreTest" tests="1" failures="1">
+                  <testcase name="test" classname="org.acme.CoreTest">
+                    <failure message="failed" type="java.lang.AssertionError"><![CDATA[%s]]></failure>
+                  </testcase>
+                </testsuite>
+                """.formatted(STACK_TRACE);
+        StringPool stringPool = new StringPool();
+
+        TestCaseResult first = TestResultsXmlParser.parse(stream(xml), stringPool).get(0).getTestCases().get(0);
+        TestCaseResult second = TestResultsXmlParser.parse(stream(xml), stringPool).get(0).getTestCases().get(0);
+
+        assertSame(first.getFullClassName(), second.getFullClassName());
+        assertSame(first.getFailureType(), second.getFailureType());
+        assertSame(first.getFailureMessage(), second.getFailureMessage());
+        assertEquals(first.getFailureDetail(), second.getFailureDetail());
+
+        TestCaseResult notPooled = TestResultsXmlParser.parse(stream(xml)).get(0).getTestCases().get(0);
+        assertNotSame(first.getFullClassName(), notPooled.getFullClassName());
+    }
+
+    @Test
+    void parsesErrorLine() {
+        assertEquals("42", TestResultsXmlParser.parseErrorLine(STACK_TRACE, "org.acme.CoreTest"));
+        assertEquals("7", TestResultsXmlParser.parseErrorLine(
+                "java.lang.AssertionError\n\tat org.acme.CoreTest$Nested.test(CoreTest.java:7)", "org.acme.CoreTest"));
+        assertEquals("", TestResultsXmlParser.parseErrorLine(STACK_TRACE, "org.acme.OtherTest"));
+        assertEquals("", TestResultsXmlParser.parseErrorLine(
+                "java.lang.AssertionError\n\tat org.acme.CoreTest.test(Unknown Source)", "org.acme.CoreTest"));
+        assertEquals("", TestResultsXmlParser.parseErrorLine(null, "org.acme.CoreTest"));
+    }
+
+    private static List<TestSuiteResult> parse(String xml) throws XMLStreamException {
+        return TestResultsXmlParser.parse(stream(xml));
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}